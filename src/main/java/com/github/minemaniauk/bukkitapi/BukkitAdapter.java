@@ -21,7 +21,6 @@
 package com.github.minemaniauk.bukkitapi;
 
 import com.github.minemaniauk.api.user.MineManiaUser;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -40,7 +39,7 @@ public class BukkitAdapter {
      * It will be empty if the player is not online on this server.
      */
     public static Optional<Player> getPlayer(@NotNull MineManiaUser user) {
-        return Optional.ofNullable(Bukkit.getPlayer(user.getUniqueId()));
+        return MineManiaAPI_BukkitPlugin.getInstance().getOnlinePlayerIndex().getPlayer(user.getUniqueId());
     }
 
     /**
@@ -1,15 +1,96 @@
 package com.github.minemaniauk.bukkitapi;
 
+import com.github.squishylib.configuration.Configuration;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Used to hold the connection to the menu database.
+ * The client keeps a pool of connections that is shared
+ * by every thread, so it should be created once
+ * and closed when the plugin is disabled.
+ */
 public class DatabaseConnection {
 
     private static MongoClient mongoClient;
     private static MongoDatabase mongoDatabase;
+    private static ExecutorService executor;
 
+    /**
+     * Used to connect with the driver's default settings.
+     *
+     * @param connectionString The connection string.
+     * @param dataBaseName     The name of the database.
+     */
     public static void Connect(String connectionString, String dataBaseName){
-        mongoClient = MongoClients.create(connectionString);
+        Connect(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(connectionString))
+                .build(), dataBaseName, 2);
+    }
+
+    /**
+     * Used to connect with the settings in the
+     * {@code database} section of the configuration.
+     *
+     * @param configuration The plugin's configuration.
+     */
+    public static void Connect(@NotNull Configuration configuration) {
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(configuration.getString("database.connection_string")))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(Math.max(1, configuration.getInteger("database.pool.max_size", 20)))
+                        .minSize(Math.max(0, configuration.getInteger("database.pool.min_size", 0)))
+                        .maxWaitTime(configuration.getInteger("database.pool.max_wait_millis", 5000), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(configuration.getInteger("database.pool.max_idle_millis", 60000), TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(configuration.getInteger("database.timeout.connect_millis", 5000), TimeUnit.MILLISECONDS)
+                        .readTimeout(configuration.getInteger("database.timeout.read_millis", 10000), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(configuration.getInteger("database.timeout.server_selection_millis", 5000), TimeUnit.MILLISECONDS));
+
+        // Check if a read preference was given.
+        String readPreference = configuration.getString("database.read_preference");
+        if (readPreference != null && !readPreference.isBlank()) {
+            try {
+                builder.readPreference(ReadPreference.valueOf(readPreference.trim()));
+            } catch (IllegalArgumentException exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .warning("Unknown database read preference " + readPreference + ", using primary.");
+            }
+        }
+
+        // Check if any compressors were given.
+        List<MongoCompressor> compressorList = DatabaseConnection.getCompressors(configuration.getString("database.compressors"));
+        if (!compressorList.isEmpty()) builder.compressorList(compressorList);
+
+        Connect(builder.build(), configuration.getString("database.database_name"),
+                configuration.getInteger("database.async_threads", 2));
+    }
+
+    private static void Connect(@NotNull MongoClientSettings settings, String dataBaseName, int asyncThreads) {
+        Close();
+        mongoClient = MongoClients.create(settings);
         mongoDatabase = mongoClient.getDatabase(dataBaseName);
+        executor = Executors.newFixedThreadPool(Math.max(1, asyncThreads), runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-Database");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public static MongoClient getMongoClient(){
@@ -20,5 +101,64 @@ public class DatabaseConnection {
         return mongoDatabase;
     }
 
+    /**
+     * Used to run a query on a database thread,
+     * so the calling thread is not blocked.
+     *
+     * @param query The query to run on the database.
+     * @param <T>   The type of result.
+     * @return The completable result.
+     */
+    public static <T> @NotNull CompletableFuture<T> supplyAsync(@NotNull Function<MongoDatabase, T> query) {
+        final MongoDatabase database = mongoDatabase;
+        return CompletableFuture.supplyAsync(() -> query.apply(database), executor);
+    }
+
+    /**
+     * Used to close the client and its pool of connections.
+     * Queries that are still waiting to run are dropped.
+     */
+    public static void Close() {
+        if (executor != null) executor.shutdownNow();
+        if (mongoClient != null) mongoClient.close();
+        executor = null;
+        mongoClient = null;
+        mongoDatabase = null;
+    }
+
+    private static @NotNull List<MongoCompressor> getCompressors(@Nullable String compressors) {
+        List<MongoCompressor> compressorList = new ArrayList<>();
+        if (compressors == null) return compressorList;
 
+        for (String name : compressors.split(",")) {
+            switch (name.trim().toLowerCase(Locale.ROOT)) {
+                case "" -> {}
+                case "zlib" -> compressorList.add(MongoCompressor.createZlibCompressor());
+                case "snappy" -> {
+                    if (DatabaseConnection.isPresent("org.xerial.snappy.Snappy", name)) {
+                        compressorList.add(MongoCompressor.createSnappyCompressor());
+                    }
+                }
+                case "zstd" -> {
+                    if (DatabaseConnection.isPresent("com.github.luben.zstd.Zstd", name)) {
+                        compressorList.add(MongoCompressor.createZstdCompressor());
+                    }
+                }
+                default -> MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .warning("Unknown database compressor " + name.trim() + ", skipping it.");
+            }
+        }
+        return compressorList;
+    }
+
+    private static boolean isPresent(@NotNull String className, @NotNull String compressor) {
+        try {
+            Class.forName(className, false, DatabaseConnection.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "The " + compressor.trim() + " database compressor is not on the classpath, skipping it.");
+            return false;
+        }
+    }
 }
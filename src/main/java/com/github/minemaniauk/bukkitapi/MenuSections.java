@@ -1,12 +1,10 @@
 package com.github.minemaniauk.bukkitapi;
 
 import com.mongodb.client.MongoCollection;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.Document;
-
-import java.util.Map;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.ArrayList;
+import org.bson.RawBsonDocument;
 
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Projections.fields;
@@ -15,50 +13,28 @@ import static com.mongodb.client.model.Projections.excludeId;
 
 public final class MenuSections {
 
-    /** Returns the subdocument under menu.<path> as a plain Map (or empty map if missing). */
-    public static Map<String,Object> loadMenuSectionMap(MongoCollection<Document> col, String path) {
-        String projPath = "menu." + path; // e.g. menu.server.main
-        Document result = col.find(eq("_id", "Menu_Servers"))
-                .projection(fields(include(projPath), excludeId()))
+    /** Returns the menu subdocument as undecoded bson (or an empty document if missing). */
+    public static BsonDocument loadRawMenuDocument(MongoCollection<Document> col) {
+        RawBsonDocument result = col.withDocumentClass(RawBsonDocument.class)
+                .find(eq("_id", "Menu_Servers"))
+                .projection(fields(include("menu"), excludeId()))
                 .first();
-        if (result == null) return Map.of();
+        if (result == null) return new BsonDocument();
 
-        // Walk down: menu -> keys in path
-        Object cur = result.get("menu");
-        for (String key : path.split("\\.")) {
-            if (!(cur instanceof Document)) return Map.of();
-            cur = ((Document) cur).get(key);
-        }
-        if (!(cur instanceof Document)) return Map.of();
+        BsonValue menu = result.get("menu");
+        if (menu == null || !menu.isDocument()) return new BsonDocument();
 
-        return toPlainMap((Document) cur);
+        return menu.asDocument();
     }
 
-    // ---- helpers: Document/List -> plain Map/List ----
-    @SuppressWarnings("unchecked")
-    private static Map<String,Object> toPlainMap(Map<String,Object> src) {
-        Map<String,Object> out = new LinkedHashMap<>();
-        for (Map.Entry<String,Object> e : src.entrySet()) {
-            Object v = e.getValue();
-            if (v instanceof Map) {
-                out.put(e.getKey(), toPlainMap((Map<String,Object>) v));
-            } else if (v instanceof List) {
-                out.put(e.getKey(), toPlainList((List<?>) v));
-            } else {
-                out.put(e.getKey(), v);
-            }
-        }
-        return out;
-    }
-
-    @SuppressWarnings("unchecked")
-    private static List<Object> toPlainList(List<?> list) {
-        List<Object> out = new ArrayList<>(list.size());
-        for (Object v : list) {
-            if (v instanceof Map) out.add(toPlainMap((Map<String,Object>) v));
-            else if (v instanceof List) out.add(toPlainList((List<?>) v));
-            else out.add(v);
+    /** Returns the section under <path> of a bson menu document (or an empty document if missing). */
+    public static BsonDocument getSection(BsonDocument menu, String path) {
+        BsonDocument cur = menu;
+        for (String key : path.split("\\.")) {
+            BsonValue value = cur.get(key);
+            if (value == null || !value.isDocument()) return new BsonDocument();
+            cur = value.asDocument();
         }
-        return out;
+        return cur;
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi;
+
+import org.bson.BsonDocument;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * Represents the menu snapshot cache.
+ * Contains the raw bytes of the menu servers document,
+ * which is loaded in the background and reloaded at a fixed interval.
+ * Menus read from the snapshot instead of querying the database.
+ */
+public class MenuSnapshotCache {
+
+    /**
+     * The name of the collection that contains the menu document.
+     */
+    public static final @NotNull String COLLECTION_NAME = "MenuServers";
+
+    private final @NotNull AtomicReference<Snapshot> snapshot;
+    private final @NotNull ScheduledExecutorService scheduler;
+
+    /**
+     * Used to create a new menu snapshot cache.
+     * The first snapshot is loaded straight away in the background.
+     *
+     * @param refreshIntervalMillis The time between each reload.
+     */
+    public MenuSnapshotCache(long refreshIntervalMillis) {
+        this.snapshot = new AtomicReference<>(new Snapshot(new BsonDocument(), 0));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-MenuSnapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.scheduler.scheduleWithFixedDelay(
+                this::reload,
+                0,
+                Math.max(1000, refreshIntervalMillis),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Used to get a section of the menu document.
+     *
+     * @param path The path of the section under menu, for example server.main.
+     * @return The section, which should not be changed.
+     * It will be empty if the section doesn't exist or has not been loaded yet.
+     */
+    public @NotNull BsonDocument getSection(@NotNull String path) {
+        return MenuSections.getSection(this.snapshot.get().menu(), path);
+    }
+
+    /**
+     * Used to get the version of the current snapshot.
+     * The version increases every time the menu document changes.
+     *
+     * @return The snapshot version.
+     */
+    public long getVersion() {
+        return this.snapshot.get().version();
+    }
+
+    /**
+     * Used to reload the menu document from the database.
+     * The snapshot is only replaced if the document has changed.
+     */
+    public void reload() {
+        try {
+            BsonDocument menu = MenuSections.loadRawMenuDocument(
+                    DatabaseConnection.getMongoDatabase().getCollection(COLLECTION_NAME)
+            );
+
+            Snapshot current = this.snapshot.get();
+            if (current.menu().equals(menu)) return;
+            this.snapshot.set(new Snapshot(menu, current.version() + 1));
+
+        } catch (Exception exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Unable to reload the menu document.", exception);
+        }
+    }
+
+    /**
+     * Used to stop reloading the menu document.
+     */
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Represents a loaded copy of the menu document.
+     *
+     * @param menu    The raw menu section, which is decoded when it is read.
+     * @param version The version of the snapshot.
+     */
+    private record Snapshot(@NotNull BsonDocument menu, long version) {
+    }
+}
@@ -27,7 +27,6 @@ import com.github.cozyplugins.cozylibrary.command.command.command.programmable.P
 import com.github.cozyplugins.cozylibrary.command.datatype.CommandArguments;
 import com.github.cozyplugins.cozylibrary.command.datatype.CommandStatus;
 import com.github.cozyplugins.cozylibrary.placeholder.PlaceholderManager;
-import com.github.cozyplugins.cozylibrary.user.ConsoleUser;
 import com.github.cozyplugins.cozylibrary.user.PlayerUser;
 import com.github.cozyplugins.cozylibrary.user.User;
 import com.github.minemaniauk.api.MineManiaAPI;
@@ -39,8 +38,30 @@ import com.github.minemaniauk.api.database.record.UserRecord;
 import com.github.minemaniauk.api.kerb.event.player.PlayerChatEvent;
 import com.github.minemaniauk.api.kerb.event.useraction.*;
 import com.github.minemaniauk.api.user.MineManiaUser;
+import com.github.minemaniauk.bukkitapi.cache.MineManiaUserCache;
+import com.github.minemaniauk.bukkitapi.cache.PawsCache;
+import com.github.minemaniauk.bukkitapi.cache.PermissionCache;
+import com.github.minemaniauk.bukkitapi.cache.UserRecordCache;
+import com.github.minemaniauk.bukkitapi.chat.ChatEchoFilter;
+import com.github.minemaniauk.bukkitapi.chat.ChatFanOut;
+import com.github.minemaniauk.bukkitapi.chat.ChatFormatCache;
+import com.github.minemaniauk.bukkitapi.chat.ChatPipeline;
+import com.github.minemaniauk.bukkitapi.chat.PlaceholderFormatter;
+import com.github.minemaniauk.bukkitapi.chat.filter.ChatFilter;
+import com.github.minemaniauk.bukkitapi.database.UserQuery;
+import com.github.minemaniauk.bukkitapi.dependency.PlaceholderAPIDependency;
+import com.github.minemaniauk.bukkitapi.database.UserSummary;
+import com.github.minemaniauk.bukkitapi.database.UserWriteQueue;
 import com.github.minemaniauk.bukkitapi.inventory.MenuInventory;
+import com.github.minemaniauk.bukkitapi.inventory.MenuOpener;
+import com.github.minemaniauk.bukkitapi.inventory.MenuTemplateCache;
+import com.github.minemaniauk.bukkitapi.kerb.KerbHealthMonitor;
 import com.github.minemaniauk.bukkitapi.listener.PlayerChatListener;
+import com.github.minemaniauk.bukkitapi.player.OnlinePlayer;
+import com.github.minemaniauk.bukkitapi.player.OnlinePlayerIndex;
+import com.github.minemaniauk.bukkitapi.scheduler.MainThreadDispatcher;
+import com.github.minemaniauk.bukkitapi.server.ServerStatusPoller;
+import com.github.minemaniauk.bukkitapi.teleport.PendingTeleportStore;
 import com.github.minemaniauk.developertools.console.Console;
 import com.github.smuddgge.squishydatabase.Query;
 import com.github.squishylib.configuration.Configuration;
@@ -48,18 +69,22 @@ import com.github.squishylib.configuration.ConfigurationFactory;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.metadata.MetadataValue;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the instance of the
@@ -71,7 +96,26 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
     private @NotNull Configuration configuration;
     private @NotNull Configuration servers;
     private @NotNull MineManiaAPI api;
-    private @NotNull Map<UUID, MineManiaLocation> teleportMap;
+    private @NotNull KerbHealthMonitor kerbHealthMonitor;
+    private @NotNull PendingTeleportStore pendingTeleportStore;
+    private @NotNull OnlinePlayerIndex onlinePlayerIndex;
+    private @NotNull MainThreadDispatcher mainThreadDispatcher;
+    private @NotNull ChatFilter chatFilter;
+    private @NotNull ChatPipeline chatPipeline;
+    private @NotNull ChatFanOut chatFanOut;
+    private @NotNull PlaceholderFormatter placeholderFormatter;
+    private @NotNull ChatFormatCache chatFormatCache;
+    private @NotNull ChatEchoFilter chatEchoFilter;
+    private @NotNull UserRecordCache userRecordCache;
+    private @NotNull UserWriteQueue userWriteQueue;
+    private @NotNull UserQuery userQuery;
+    private @NotNull MineManiaUserCache userCache;
+    private @NotNull PawsCache pawsCache;
+    private @NotNull PermissionCache permissionCache;
+    private @NotNull MenuSnapshotCache menuSnapshotCache;
+    private @NotNull MenuTemplateCache menuTemplateCache;
+    private @NotNull MenuOpener menuOpener;
+    private @NotNull ServerStatusPoller serverStatusPoller;
 
     public MineManiaAPI_BukkitPlugin(@NotNull JavaPlugin plugin) {
         super(plugin);
@@ -104,22 +148,136 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
         this.configuration.setResourcePath("config.yml");
         this.configuration.load();
 
-        // Set up the api.
-        this.api = MineManiaAPI.createAndSet(this.configuration, this);
+        // Set up the online player index with anyone already online.
+        this.onlinePlayerIndex = new OnlinePlayerIndex();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            this.onlinePlayerIndex.add(player, this.isVanished(player));
+        }
+
+        // Set up the dispatcher used to run kerb actions on the main thread.
+        this.mainThreadDispatcher = new MainThreadDispatcher(
+                this.getPlugin(),
+                this.configuration.getInteger("dispatcher.tick_budget_micros", 5000)
+        ).start();
+
+        // Set up the monitor that keeps track of whether kerb is answering.
+        this.kerbHealthMonitor = new KerbHealthMonitor(
+                this.configuration.getInteger("kerb.degraded.failure_threshold", 3),
+                this.configuration.getInteger("kerb.degraded.probe_interval_millis", 5000),
+                this.configuration.getString("kerb.degraded.chat_prefix", "&7%player_name%&8: &f")
+        );
+
+        // Keep the cached vanish states up to date.
+        final int vanishInterval = Math.max(1, this.configuration.getInteger("vanish.refresh_interval_ticks", 20));
+        Bukkit.getScheduler().runTaskTimer(this.getPlugin(), this::refreshVanished, vanishInterval, vanishInterval);
+
+        // Set up the pending teleport store.
+        this.pendingTeleportStore = new PendingTeleportStore(
+                this.configuration.getInteger("teleport.pending_time_to_live_seconds", 60) * 1000L,
+                this.configuration.getInteger("teleport.max_pending", 1000),
+                this.configuration.getBoolean("teleport.journal", true)
+                        ? new File(this.getPlugin().getDataFolder(), "pending-teleports.journal")
+                        : null
+        );
+        this.pendingTeleportStore.load();
+        Bukkit.getScheduler().runTaskTimerAsynchronously(
+                this.getPlugin(),
+                this.pendingTeleportStore::purgeExpired,
+                20 * 30, 20 * 30
+        );
+
+        // Set up the user record cache.
+        this.userRecordCache = new UserRecordCache();
+        this.userCache = new MineManiaUserCache(
+                this.configuration.getInteger("cache.user.max_size", 5000),
+                this.configuration.getInteger("cache.user.time_to_live_seconds", 300) * 1000L
+        );
+        this.permissionCache = new PermissionCache(this.configuration.getInteger("cache.permission.time_to_live_seconds", 30) * 1000L);
+        this.pawsCache = new PawsCache(this.configuration.getInteger("cache.paws.refresh_interval_seconds", 30) * 1000L);
+        this.userWriteQueue = new UserWriteQueue(
+                this.configuration.getInteger("database.write_interval_millis", 1000),
+                this.configuration.getInteger("database.write_batch_size", 50)
+        );
+
+        // Compile the chat filter rules.
+        this.chatFilter = ChatFilter.load(this.configuration.getSection("chat.filter"));
 
-        // Set up the teleport list.
-        this.teleportMap = new HashMap<>();
+        // Set up the chat pipeline.
+        this.chatPipeline = new ChatPipeline(
+                this.configuration.getInteger("chat.pipeline_threads", 4),
+                this.configuration.getInteger("chat.max_in_flight", 256)
+        );
+        this.chatFanOut = new ChatFanOut(this.configuration.getInteger("chat.players_per_tick", 200));
+
+        // Resolve placeholder api and set up the chat formatting.
+        PlaceholderAPIDependency.refresh();
+        this.placeholderFormatter = new PlaceholderFormatter(this.configuration.getInteger("chat.placeholders.cache_millis", 1000));
+        this.chatFormatCache = new ChatFormatCache(
+                this.configuration.getBoolean("chat.format_cache.enabled", false),
+                this.configuration.getInteger("chat.format_cache.time_to_live_seconds", 30) * 1000L
+        );
+        if (this.chatFormatCache.isEnabled()) {
+            this.getPlugin().getLogger().warning("The chat format cache is enabled. Messages sent while a player's "
+                    + "format is remembered skip network moderation until it expires.");
+        }
+        this.chatEchoFilter = new ChatEchoFilter(
+                this.configuration.getBoolean("chat.local_first.enabled", false),
+                this.configuration.getInteger("chat.local_first.echo_time_to_live_millis", 10000)
+        );
+
+        // Connect to the menu database.
+        DatabaseConnection.Connect(this.configuration);
+
+        // Set up the user lookups and make sure their indexes exist.
+        this.userQuery = new UserQuery(this.configuration.getString("database.user_collection"));
+        DatabaseConnection.supplyAsync(database -> {
+            this.userQuery.ensureIndexes();
+            return null;
+        });
+
+        // Start loading the menu document.
+        this.menuSnapshotCache = new MenuSnapshotCache(this.configuration.getInteger("menu.refresh_interval_seconds", 30) * 1000L);
+        this.menuTemplateCache = new MenuTemplateCache(this.menuSnapshotCache);
+        this.menuOpener = new MenuOpener(
+                this.menuTemplateCache,
+                this.configuration.getInteger("menu.threads", 2),
+                this.configuration.getInteger("menu.debounce_millis", 250)
+        );
 
-        DatabaseConnection.Connect(configuration.getString("database.connection_string"), configuration.getString("database.database_name"));
+        // Start polling the player counts shown in the menus.
+        this.serverStatusPoller = new ServerStatusPoller(
+                this.getPlugin(),
+                this.configuration.getInteger("menu.status.refresh_interval_ticks", 100),
+                this.configuration.getString("menu.status.online_lore", "&7Online: &f%players%"),
+                this.configuration.getString("menu.status.unknown_lore", "&7Online: &8Unknown")
+        ).start();
+
+        // Set up the api last, as kerb can start calling
+        // events as soon as it connects.
+        this.api = MineManiaAPI.createAndSet(this.configuration, this);
 
         // Register events.
         this.getPlugin().getServer().getPluginManager().registerEvents(new PlayerChatListener(), this.getPlugin());
+        this.getPlugin().getServer().getPluginManager().registerEvents(new PlaceholderAPIDependency(), this.getPlugin());
         this.getPlugin().getServer().getPluginManager().registerEvents(this, this.getPlugin());
     }
 
     @Override
     protected void onDisable() {
 
+        // Let any queued chat messages finish.
+        if (this.chatPipeline != null) this.chatPipeline.shutdown();
+        if (this.mainThreadDispatcher != null) this.mainThreadDispatcher.shutdown();
+        if (this.kerbHealthMonitor != null) this.kerbHealthMonitor.shutdown();
+
+        // Write any user records that are still queued.
+        if (this.userWriteQueue != null) this.userWriteQueue.shutdown();
+        if (this.pawsCache != null) this.pawsCache.shutdown();
+        if (this.menuSnapshotCache != null) this.menuSnapshotCache.shutdown();
+        if (this.menuOpener != null) this.menuOpener.shutdown();
+        if (this.serverStatusPoller != null) this.serverStatusPoller.shutdown();
+        DatabaseConnection.Close();
+        if (this.pendingTeleportStore != null) this.pendingTeleportStore.close();
     }
 
     @Override
@@ -131,7 +289,8 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
                 .setPlayer(new ProgrammableExecutor<>() {
                     @Override
                     public @Nullable CommandStatus onUser(@NotNull PlayerUser user, @NotNull CommandArguments arguments) {
-                        new MenuInventory().open(user.getPlayer());
+                        MineManiaAPI_BukkitPlugin.getInstance().getMenuOpener()
+                                .open(user.getPlayer(), MenuInventory::new, MenuInventory.TEMPLATE_PATH);
                         return new CommandStatus();
                     }
                 })
@@ -145,6 +304,23 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
 
     @Override
     public @NotNull MineManiaUser getUser(@NotNull UUID uuid) {
+
+        // Check if the user is cached.
+        Optional<MineManiaUser> optionalUser = this.userCache.get(uuid);
+        if (optionalUser.isPresent()) return optionalUser.get();
+
+        // Check if the user can be looked up directly.
+        if (this.userQuery.isEnabled()) {
+            Optional<UserSummary> optionalSummary = this.userQuery.find(uuid);
+            if (optionalSummary.isEmpty()) {
+                return new MineManiaUser(uuid, Bukkit.getOfflinePlayer(uuid).getName());
+            }
+
+            MineManiaUser user = new MineManiaUser(uuid, optionalSummary.get().name());
+            this.userCache.put(user);
+            return user;
+        }
+
         UserRecord record = this.getAPI().getDatabase()
                 .getTable(UserCollection.class)
                 .getFirstRecord(new Query().match("mc_uuid", uuid.toString()));
@@ -153,11 +329,30 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
             return new MineManiaUser(uuid, Bukkit.getOfflinePlayer(uuid).getName());
         }
 
-        return new MineManiaUser(uuid, record.getMinecraftName());
+        MineManiaUser user = new MineManiaUser(uuid, record.getMinecraftName());
+        this.userCache.put(user);
+        return user;
     }
 
     @Override
     public @NotNull MineManiaUser getUser(@NotNull String name) {
+
+        // Check if the user is cached.
+        Optional<MineManiaUser> optionalUser = this.userCache.get(name);
+        if (optionalUser.isPresent()) return optionalUser.get();
+
+        // Check if the user can be looked up directly.
+        if (this.userQuery.isEnabled()) {
+            Optional<UserSummary> optionalSummary = this.userQuery.find(name);
+            if (optionalSummary.isEmpty()) {
+                return new MineManiaUser(Bukkit.getOfflinePlayer(name).getUniqueId(), name);
+            }
+
+            MineManiaUser user = new MineManiaUser(optionalSummary.get().uuid(), optionalSummary.get().name());
+            this.userCache.put(user);
+            return user;
+        }
+
         UserRecord record = this.getAPI().getDatabase()
                 .getTable(UserCollection.class)
                 .getFirstRecord(new Query().match("mc_name", name));
@@ -167,7 +362,9 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
             return new MineManiaUser(Bukkit.getOfflinePlayer(name).getUniqueId(), name);
         }
 
-        return new MineManiaUser(record.getMinecraftUuid(), name);
+        MineManiaUser user = new MineManiaUser(record.getMinecraftUuid(), name);
+        this.userCache.put(user);
+        return user;
     }
 
     @Override
@@ -175,19 +372,21 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
         Optional<Player> optionalPlayer = BukkitAdapter.getPlayer(event.getUser());
 
         // Return with the correct permission checks unless the player is null.
-        return optionalPlayer.map(player -> event.setResult(player::hasPermission)).orElse(null);
+        return optionalPlayer.map(player -> event.setResult(
+                permission -> this.permissionCache.hasPermission(player, permission)
+        )).orElse(null);
     }
 
     @Override
     public @Nullable UserActionIsOnlineEvent onIsOnline(@NotNull UserActionIsOnlineEvent event) {
-        return (UserActionIsOnlineEvent) event.set(BukkitAdapter.getPlayer(event.getUser()).isPresent());
+        return (UserActionIsOnlineEvent) event.set(this.onlinePlayerIndex.isOnline(event.getUser().getUniqueId()));
     }
 
     @Override
     public @Nullable UserActionIsVanishedEvent onIsVanished(@NotNull UserActionIsVanishedEvent event) {
-        Optional<Player> optionalPlayer = BukkitAdapter.getPlayer(event.getUser());
+        Optional<OnlinePlayer> optionalPlayer = this.onlinePlayerIndex.get(event.getUser().getUniqueId());
         return optionalPlayer.map(
-                player -> (UserActionIsVanishedEvent) event.set(this.isVanished(player))
+                player -> (UserActionIsVanishedEvent) event.set(player.isVanished())
         ).orElse(null);
     }
 
@@ -196,9 +395,14 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
         Optional<Player> optionalPlayer = BukkitAdapter.getPlayer(event.getUser());
         if (optionalPlayer.isEmpty()) return null;
 
-        // Send the message to the user.
-        User user = new PlayerUser(optionalPlayer.get());
-        user.sendMessage(event.getMessage());
+        // Send the message to the user on the main thread.
+        final Player player = optionalPlayer.get();
+        final String message = event.getMessage();
+        this.mainThreadDispatcher.submit(() -> {
+            if (!player.isOnline()) return;
+            User user = new PlayerUser(player);
+            user.sendMessage(message);
+        });
 
         // Complete the event.
         return (UserActionMessageEvent) event.complete();
@@ -220,12 +424,23 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
 
         // Check if the player is already online.
         if (optionalPlayer.isPresent()) {
-            optionalPlayer.get().teleport(event.getLocation().getLocation(new BukkitLocationConverter()));
+            final Player player = optionalPlayer.get();
+            final MineManiaLocation location = event.getLocation();
+            this.mainThreadDispatcher.submit(() -> {
+
+                // Check if the player left before the teleport could happen.
+                if (!player.isOnline()) {
+                    this.pendingTeleportStore.put(player.getUniqueId(), location);
+                    return;
+                }
+
+                player.teleport(location.getLocation(new BukkitLocationConverter()));
+            });
             return (UserActionTeleportEvent) event.setComplete(true);
         }
 
-        // Otherwise, add to a teleport list.
-        this.teleportMap.put(event.getUser().getUniqueId(), event.getLocation());
+        // Otherwise, add to the pending teleports.
+        this.pendingTeleportStore.put(event.getUser().getUniqueId(), event.getLocation());
         return (UserActionTeleportEvent) event.setComplete(true);
     }
 
@@ -238,51 +453,88 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
             return event;
         }
 
-        // Send all the players online the message.
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            new PlayerUser(player).sendMessage(event.getFormattedMessage());
+        // Check if the message was already shown on this server.
+        String formattedMessage = event.getFormattedMessage();
+        Optional<String> optionalMessageId = ChatEchoFilter.getId(formattedMessage);
+        if (optionalMessageId.isPresent()) {
+            if (this.chatEchoFilter.consume(optionalMessageId.get())) return (PlayerChatEvent) event.complete();
+            formattedMessage = ChatEchoFilter.removeId(formattedMessage);
         }
 
-        new ConsoleUser().sendMessage(event.getFormattedMessage());
+        // Send all the players online the message.
+        this.chatFanOut.broadcast(formattedMessage);
 
         return (PlayerChatEvent) event.complete();
     }
 
-    @EventHandler
-    public void onPlayerJoin(PlayerJoinEvent event) {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
 
-        // Check if they are in the database.
-        UserRecord record = this.getAPI().getDatabase()
-                .getTable(UserCollection.class)
-                .getUserRecord(event.getPlayer().getUniqueId())
-                .orElse(null);
+        // Load the user record before the player joins.
+        UserRecord record = this.updateUserRecord(event.getUniqueId(), event.getName());
+        this.userRecordCache.put(event.getUniqueId(), record);
+        this.pawsCache.set(event.getUniqueId(), record.getPaws());
+    }
 
-        if (record == null) {
-            UserRecord userRecord = new UserRecord();
-            userRecord.mc_name = event.getPlayer().getName();
-            userRecord.mc_uuid = event.getPlayer().getUniqueId().toString();
-
-            this.getAPI().getDatabase()
-                    .getTable(UserCollection.class)
-                    .insertRecord(userRecord);
-        } else {
-            record.mc_name = event.getPlayer().getName();
-            this.getAPI().getDatabase()
-                    .getTable(UserCollection.class)
-                    .insertRecord(record);
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+
+        // Check if the player was denied after pre-login.
+        if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) return;
+        this.userRecordCache.remove(event.getPlayer().getUniqueId());
+        this.pawsCache.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoinIndex(PlayerJoinEvent event) {
+        this.onlinePlayerIndex.add(event.getPlayer(), this.isVanished(event.getPlayer()));
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        final UUID playerUuid = event.getPlayer().getUniqueId();
+        final String playerName = event.getPlayer().getName();
+
+        // Check if the user record was not loaded on pre-login.
+        if (this.userRecordCache.get(playerUuid).isEmpty()) {
+            Bukkit.getScheduler().runTaskAsynchronously(this.getPlugin(), () -> this.userRecordCache.put(
+                    playerUuid,
+                    this.updateUserRecord(playerUuid, playerName)
+            ));
         }
 
-        // Check if they are in the teleport map.
-        if (!teleportMap.containsKey(event.getPlayer().getUniqueId())) return;
+        // Check if they have a pending teleport.
+        Optional<MineManiaLocation> optionalLocation = this.pendingTeleportStore.consume(playerUuid);
+        if (optionalLocation.isEmpty()) return;
 
         // Get the instance of the location to teleport to.
-        MineManiaLocation location = this.teleportMap.get(event.getPlayer().getUniqueId());
+        MineManiaLocation location = optionalLocation.get();
 
         // Teleport the player.
         PlayerUser user = new PlayerUser(event.getPlayer());
         user.forceTeleport(location.getLocation(new BukkitLocationConverter()));
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.onlinePlayerIndex.remove(event.getPlayer().getUniqueId());
+        this.userRecordCache.remove(event.getPlayer().getUniqueId());
+        this.pawsCache.remove(event.getPlayer().getUniqueId());
+        this.permissionCache.invalidate(event.getPlayer().getUniqueId());
+        this.menuOpener.remove(event.getPlayer().getUniqueId());
+        this.placeholderFormatter.remove(event.getPlayer().getUniqueId());
+        this.chatFormatCache.invalidate(event.getPlayer().getUniqueId());
+        this.kerbHealthMonitor.removeTeleport(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+
+        // Permissions can be different in each world.
+        this.permissionCache.invalidate(event.getPlayer().getUniqueId());
+    }
+
     /**
      * Used to get the configuration file instance.
      *
@@ -292,6 +544,206 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
         return this.configuration;
     }
 
+    /**
+     * Used to get the chat filter, which messages
+     * are checked against before being sent to kerb.
+     *
+     * @return The chat filter.
+     */
+    public @NotNull ChatFilter getChatFilter() {
+        return this.chatFilter;
+    }
+
+    /**
+     * Used to get the chat pipeline that player
+     * messages are processed on.
+     *
+     * @return The chat pipeline.
+     */
+    public @NotNull ChatPipeline getChatPipeline() {
+        return this.chatPipeline;
+    }
+
+    /**
+     * Used to get the formatter that applies chat
+     * formats and their placeholders to messages.
+     *
+     * @return The placeholder formatter.
+     */
+    public @NotNull PlaceholderFormatter getPlaceholderFormatter() {
+        return this.placeholderFormatter;
+    }
+
+    /**
+     * Used to get the cache of each player's chat format.
+     * Plugins that change ranks or formats should
+     * invalidate the player's entry.
+     *
+     * @return The chat format cache.
+     */
+    public @NotNull ChatFormatCache getChatFormatCache() {
+        return this.chatFormatCache;
+    }
+
+    /**
+     * Used to get the chat fan out, which sends
+     * messages to the players on this server.
+     *
+     * @return The chat fan out.
+     */
+    public @NotNull ChatFanOut getChatFanOut() {
+        return this.chatFanOut;
+    }
+
+    /**
+     * Used to get the filter that stops messages
+     * already shown on this server being shown again.
+     *
+     * @return The chat echo filter.
+     */
+    public @NotNull ChatEchoFilter getChatEchoFilter() {
+        return this.chatEchoFilter;
+    }
+
+    /**
+     * Used to get the cache of user records
+     * for the players on this server.
+     *
+     * @return The user record cache.
+     */
+    public @NotNull UserRecordCache getUserRecordCache() {
+        return this.userRecordCache;
+    }
+
+    /**
+     * Used to get the queue that players' names
+     * are written to the database through.
+     *
+     * @return The user write queue.
+     */
+    public @NotNull UserWriteQueue getUserWriteQueue() {
+        return this.userWriteQueue;
+    }
+
+    /**
+     * Used to get the direct lookups
+     * on the mongo user collection.
+     *
+     * @return The user query.
+     */
+    public @NotNull UserQuery getUserQuery() {
+        return this.userQuery;
+    }
+
+    /**
+     * Used to get the cache used when
+     * looking up mine mania users.
+     *
+     * @return The user cache.
+     */
+    public @NotNull MineManiaUserCache getUserCache() {
+        return this.userCache;
+    }
+
+    /**
+     * Used to get the cache of online players' paws.
+     *
+     * @return The paws cache.
+     */
+    public @NotNull PawsCache getPawsCache() {
+        return this.pawsCache;
+    }
+
+    /**
+     * Used to get the cached copy of the
+     * menu document that menus are built from.
+     *
+     * @return The menu snapshot cache.
+     */
+    public @NotNull MenuSnapshotCache getMenuSnapshotCache() {
+        return this.menuSnapshotCache;
+    }
+
+    /**
+     * Used to get the compiled menu templates.
+     *
+     * @return The menu template cache.
+     */
+    public @NotNull MenuTemplateCache getMenuTemplateCache() {
+        return this.menuTemplateCache;
+    }
+
+    /**
+     * Used to get the server status poller,
+     * which contains the player count of each server.
+     *
+     * @return The server status poller.
+     */
+    public @NotNull ServerStatusPoller getServerStatusPoller() {
+        return this.serverStatusPoller;
+    }
+
+    /**
+     * Used to get the kerb health monitor, which should be used
+     * when waiting for kerb results.
+     *
+     * @return The kerb health monitor.
+     */
+    public @NotNull KerbHealthMonitor getKerbHealthMonitor() {
+        return this.kerbHealthMonitor;
+    }
+
+    /**
+     * Used to get the main thread dispatcher.
+     * Work that touches bukkit from another thread
+     * should be submitted to this.
+     *
+     * @return The main thread dispatcher.
+     */
+    public @NotNull MainThreadDispatcher getMainThreadDispatcher() {
+        return this.mainThreadDispatcher;
+    }
+
+    /**
+     * Used to get the menu opener, which should
+     * be used when opening a menu for a player.
+     *
+     * @return The menu opener.
+     */
+    public @NotNull MenuOpener getMenuOpener() {
+        return this.menuOpener;
+    }
+
+    /**
+     * Used to get the store of players that should be
+     * teleported when they join this server.
+     *
+     * @return The pending teleport store.
+     */
+    public @NotNull PendingTeleportStore getPendingTeleportStore() {
+        return this.pendingTeleportStore;
+    }
+
+    /**
+     * Used to get the index of players online on this server.
+     * This can be safely used from any thread.
+     *
+     * @return The online player index.
+     */
+    public @NotNull OnlinePlayerIndex getOnlinePlayerIndex() {
+        return this.onlinePlayerIndex;
+    }
+
+    /**
+     * Used to get the cache of permission checks
+     * made for remote requests.
+     *
+     * @return The permission cache.
+     */
+    public @NotNull PermissionCache getPermissionCache() {
+        return this.permissionCache;
+    }
+
     public @NotNull Configuration getServers() {
         return this.servers;
     }
@@ -328,6 +780,17 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
         return false;
     }
 
+    /**
+     * Used to update the cached vanish state
+     * of every online player.
+     * This should be called on the main thread.
+     */
+    public void refreshVanished() {
+        for (OnlinePlayer onlinePlayer : this.onlinePlayerIndex.getAll()) {
+            onlinePlayer.setVanished(this.isVanished(onlinePlayer.getPlayer()));
+        }
+    }
+
     /**
      * Used to get the instance of the online player
      * from a mine mania user.
@@ -336,23 +799,94 @@ public final class MineManiaAPI_BukkitPlugin extends CozyPlugin implements MineM
      * @return The optional player instance.
      */
     public @NotNull Optional<Player> getPlayer(@NotNull MineManiaUser user) {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getUniqueId().equals(user.getUniqueId())) return Optional.of(player);
+        return this.onlinePlayerIndex.getPlayer(user.getUniqueId());
+    }
+
+    /**
+     * Used to get a player's user record and make sure
+     * their name in the database is up to date.
+     * The record is only queued to be written when
+     * it is new or the player's name has changed.
+     * This will query the database, so it should
+     * not be called on the main thread.
+     *
+     * @param playerUuid The player's uuid.
+     * @param playerName The player's current name.
+     * @return The player's user record.
+     */
+    public @NotNull UserRecord updateUserRecord(@NotNull UUID playerUuid, @NotNull String playerName) {
+        UserCollection collection = this.getAPI().getDatabase().getTable(UserCollection.class);
+        UserRecord record = collection.getUserRecord(playerUuid).orElse(null);
+
+        // Check if they are not in the database.
+        if (record == null) {
+            record = new UserRecord();
+            record.mc_uuid = playerUuid.toString();
+            record.mc_name = playerName;
+            this.userWriteQueue.queue(playerUuid, playerName);
+            this.userCache.put(new MineManiaUser(playerUuid, playerName));
+            return record;
         }
-        return Optional.empty();
+
+        // Check if their name has changed.
+        if (!playerName.equals(record.mc_name)) {
+            record.mc_name = playerName;
+            this.userWriteQueue.queue(playerUuid, playerName);
+        }
+
+        // Refresh the cached user in case their name changed.
+        this.userCache.put(new MineManiaUser(playerUuid, playerName));
+        return record;
     }
 
     /**
      * Used to get a player's paws.
+     * Online players' paws are kept in memory, otherwise
+     * this will query the database.
      *
      * @param playerUuid The player's uuid.
      * @return The number of paws they have.
      */
     public long getPaws(@NotNull UUID playerUuid) {
-        return this.getAPI().getDatabase()
-                .getTable(UserCollection.class)
-                .getUserRecord(playerUuid)
-                .orElse(new UserRecord())
-                .getPaws();
+        return this.pawsCache.get(playerUuid);
+    }
+
+    /**
+     * Used to get a player's paws without blocking
+     * the current thread when they are not cached.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The completable number of paws they have.
+     */
+    public @NotNull CompletableFuture<Long> getPawsAsync(@NotNull UUID playerUuid) {
+        return this.pawsCache.getAsync(playerUuid);
+    }
+
+    /**
+     * Used to get a user without blocking the current
+     * thread when they are not cached.
+     * The lookup runs on a database thread.
+     *
+     * @param uuid The user's uuid.
+     * @return The completable user.
+     */
+    public @NotNull CompletableFuture<MineManiaUser> getUserAsync(@NotNull UUID uuid) {
+        Optional<MineManiaUser> optionalUser = this.userCache.get(uuid);
+        if (optionalUser.isPresent()) return CompletableFuture.completedFuture(optionalUser.get());
+        return DatabaseConnection.supplyAsync(database -> this.getUser(uuid));
+    }
+
+    /**
+     * Used to get a user without blocking the current
+     * thread when they are not cached.
+     * The lookup runs on a database thread.
+     *
+     * @param name The user's name.
+     * @return The completable user.
+     */
+    public @NotNull CompletableFuture<MineManiaUser> getUserAsync(@NotNull String name) {
+        Optional<MineManiaUser> optionalUser = this.userCache.get(name);
+        if (optionalUser.isPresent()) return CompletableFuture.completedFuture(optionalUser.get());
+        return DatabaseConnection.supplyAsync(database -> this.getUser(name));
     }
 }
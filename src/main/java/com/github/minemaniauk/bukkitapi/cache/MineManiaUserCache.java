@@ -0,0 +1,204 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.cache;
+
+import com.github.minemaniauk.api.user.MineManiaUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the mine mania user cache.
+ * Used to look up users by uuid or name without
+ * querying the database every time.
+ * Entries expire after a set time and the cache
+ * is limited to a maximum number of users.
+ */
+public class MineManiaUserCache {
+
+    private final @NotNull Map<UUID, Entry> uuidMap;
+    private final @NotNull Map<String, Entry> nameMap;
+    private final int maxSize;
+    private final long timeToLiveMillis;
+    private final @NotNull LongAdder hits;
+    private final @NotNull LongAdder misses;
+
+    /**
+     * Used to create a new user cache.
+     *
+     * @param maxSize          The maximum number of users to cache.
+     * @param timeToLiveMillis The time a user stays in the cache.
+     */
+    public MineManiaUserCache(int maxSize, long timeToLiveMillis) {
+        this.uuidMap = new ConcurrentHashMap<>();
+        this.nameMap = new ConcurrentHashMap<>();
+        this.maxSize = Math.max(1, maxSize);
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Used to get a cached user from their uuid.
+     *
+     * @param uuid The user's uuid.
+     * @return The optional user.
+     */
+    public @NotNull Optional<MineManiaUser> get(@NotNull UUID uuid) {
+        return this.check(this.uuidMap.get(uuid));
+    }
+
+    /**
+     * Used to get a cached user from their name.
+     * The name is not case-sensitive.
+     *
+     * @param name The user's name.
+     * @return The optional user.
+     */
+    public @NotNull Optional<MineManiaUser> get(@NotNull String name) {
+        return this.check(this.nameMap.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Used to add a user to the cache.
+     * This will replace the user's previous entry,
+     * including the entry for their old name.
+     *
+     * @param user The instance of the user.
+     * @return This instance.
+     */
+    public @NotNull MineManiaUserCache put(@NotNull MineManiaUser user) {
+        Entry entry = new Entry(user, System.currentTimeMillis() + this.timeToLiveMillis);
+
+        Entry previous = this.uuidMap.put(user.getUniqueId(), entry);
+        if (previous != null) this.nameMap.remove(previous.key(), previous);
+        this.nameMap.put(entry.key(), entry);
+
+        if (this.uuidMap.size() > this.maxSize) this.evict();
+        return this;
+    }
+
+    /**
+     * Used to remove a user from the cache.
+     *
+     * @param uuid The user's uuid.
+     * @return This instance.
+     */
+    public @NotNull MineManiaUserCache invalidate(@NotNull UUID uuid) {
+        Entry entry = this.uuidMap.remove(uuid);
+        if (entry != null) this.nameMap.remove(entry.key(), entry);
+        return this;
+    }
+
+    /**
+     * Used to remove every user from the cache.
+     *
+     * @return This instance.
+     */
+    public @NotNull MineManiaUserCache invalidateAll() {
+        this.uuidMap.clear();
+        this.nameMap.clear();
+        return this;
+    }
+
+    /**
+     * Used to get the number of users in the cache.
+     *
+     * @return The number of users.
+     */
+    public int getSize() {
+        return this.uuidMap.size();
+    }
+
+    /**
+     * Used to get the number of lookups that
+     * were found in the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Used to get the number of lookups that
+     * were not found in the cache.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    private @NotNull Optional<MineManiaUser> check(Entry entry) {
+
+        // Check if the entry doesn't exist or has expired.
+        if (entry == null || entry.hasExpired()) {
+            if (entry != null) this.invalidate(entry.user().getUniqueId());
+            this.misses.increment();
+            return Optional.empty();
+        }
+
+        this.hits.increment();
+        return Optional.of(entry.user());
+    }
+
+    private void evict() {
+
+        // Remove expired entries first.
+        this.uuidMap.values().removeIf(entry -> {
+            if (!entry.hasExpired()) return false;
+            this.nameMap.remove(entry.key(), entry);
+            return true;
+        });
+
+        // Then remove entries until the cache is back to size.
+        Iterator<Entry> iterator = this.uuidMap.values().iterator();
+        while (this.uuidMap.size() > this.maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            this.nameMap.remove(entry.key(), entry);
+        }
+    }
+
+    /**
+     * Represents a cached user.
+     *
+     * @param user      The instance of the user.
+     * @param expiresAt The time the entry expires in milliseconds.
+     */
+    private record Entry(@NotNull MineManiaUser user, long expiresAt) {
+
+        private boolean hasExpired() {
+            return System.currentTimeMillis() > this.expiresAt;
+        }
+
+        private @NotNull String key() {
+            return this.user.getName().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.cache;
+
+import com.github.minemaniauk.api.database.collection.UserCollection;
+import com.github.minemaniauk.api.database.record.UserRecord;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import com.github.minemaniauk.bukkitapi.database.UserQuery;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Represents the paws cache.
+ * Used to keep the paws balance of online players in memory.
+ * The balances are reloaded from the database in the background
+ * at a fixed interval, in a single query when the
+ * mongo user collection is configured.
+ */
+public class PawsCache {
+
+    private final @NotNull Map<UUID, AtomicLong> balanceMap;
+    private final @NotNull ScheduledExecutorService executor;
+
+    /**
+     * Used to create a new paws cache.
+     *
+     * @param refreshIntervalMillis The time between each reload of the balances.
+     */
+    public PawsCache(long refreshIntervalMillis) {
+        this.balanceMap = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-PawsCache");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(1000, refreshIntervalMillis);
+        this.executor.scheduleWithFixedDelay(this::reload, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Used to get a player's cached balance.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional balance.
+     * It will be empty if the balance is not cached.
+     */
+    public @NotNull OptionalLong getCached(@NotNull UUID playerUuid) {
+        AtomicLong balance = this.balanceMap.get(playerUuid);
+        if (balance == null) return OptionalLong.empty();
+        return OptionalLong.of(balance.get());
+    }
+
+    /**
+     * Used to get a player's balance.
+     * If the balance is not cached it will be
+     * loaded from the database on this thread.
+     * Only balances of online players are kept.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The player's balance.
+     */
+    public long get(@NotNull UUID playerUuid) {
+        AtomicLong balance = this.balanceMap.get(playerUuid);
+        if (balance != null) return balance.get();
+        return this.load(playerUuid);
+    }
+
+    /**
+     * Used to get a player's balance without blocking.
+     * If the balance is not cached it will be
+     * loaded from the database in the background.
+     * Only balances of online players are kept.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The completable balance.
+     */
+    public @NotNull CompletableFuture<Long> getAsync(@NotNull UUID playerUuid) {
+        AtomicLong balance = this.balanceMap.get(playerUuid);
+        if (balance != null) return CompletableFuture.completedFuture(balance.get());
+        return CompletableFuture.supplyAsync(() -> this.load(playerUuid), this.executor);
+    }
+
+    /**
+     * Used to set a player's cached balance.
+     * This should only be called for players that are
+     * online or joining, anyone else is removed on the
+     * next reload.
+     *
+     * @param playerUuid The player's uuid.
+     * @param paws       The player's balance.
+     * @return This instance.
+     */
+    public @NotNull PawsCache set(@NotNull UUID playerUuid, long paws) {
+        AtomicLong balance = this.balanceMap.putIfAbsent(playerUuid, new AtomicLong(paws));
+        if (balance != null) balance.set(paws);
+        return this;
+    }
+
+    /**
+     * Used to remove a player's balance from the cache.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull PawsCache remove(@NotNull UUID playerUuid) {
+        this.balanceMap.remove(playerUuid);
+        return this;
+    }
+
+    /**
+     * Used to reload every cached balance from the database.
+     * Players that are no longer online are removed.
+     */
+    public void reload() {
+        List<UUID> uuidList = new ArrayList<>();
+        for (UUID playerUuid : this.balanceMap.keySet()) {
+            if (!MineManiaAPI_BukkitPlugin.getInstance().getOnlinePlayerIndex().isOnline(playerUuid)) {
+                this.balanceMap.remove(playerUuid);
+                continue;
+            }
+            uuidList.add(playerUuid);
+        }
+        if (uuidList.isEmpty()) return;
+
+        // Check if the balances can be loaded in one query.
+        UserQuery userQuery = MineManiaAPI_BukkitPlugin.getInstance().getUserQuery();
+        if (userQuery.isEnabled()) {
+            try {
+                Map<UUID, Long> pawsMap = userQuery.findPaws(uuidList);
+                for (UUID playerUuid : uuidList) {
+                    this.set(playerUuid, pawsMap.getOrDefault(playerUuid, 0L));
+                }
+                return;
+
+            } catch (Exception exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .log(Level.WARNING, "Unable to reload paws in one query, loading each player.", exception);
+            }
+        }
+
+        for (UUID playerUuid : uuidList) {
+            try {
+                this.load(playerUuid);
+            } catch (Exception exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .log(Level.WARNING, "Unable to reload paws for " + playerUuid + ".", exception);
+            }
+        }
+    }
+
+    /**
+     * Used to stop reloading balances.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private long load(@NotNull UUID playerUuid) {
+        long paws = MineManiaAPI_BukkitPlugin.getInstance().getAPI().getDatabase()
+                .getTable(UserCollection.class)
+                .getUserRecord(playerUuid)
+                .map(UserRecord::getPaws)
+                .orElse(0L);
+
+        // Check if the player is online, so
+        // offline balances are never kept.
+        if (MineManiaAPI_BukkitPlugin.getInstance().getOnlinePlayerIndex().isOnline(playerUuid)) {
+            this.set(playerUuid, paws);
+        }
+        return paws;
+    }
+}
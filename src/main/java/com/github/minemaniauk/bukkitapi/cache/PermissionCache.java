@@ -0,0 +1,156 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.cache;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the permission cache.
+ * Used to remember the result of permission checks made
+ * for remote requests, so they don't have to go through
+ * the permission plugin every time.
+ * A player's results are forgotten after a set time,
+ * or when they are invalidated.
+ */
+public class PermissionCache {
+
+    private final @NotNull Map<UUID, PlayerPermissions> playerMap;
+    private final long timeToLiveMillis;
+    private final @NotNull LongAdder hits;
+    private final @NotNull LongAdder misses;
+
+    /**
+     * Used to create a new permission cache.
+     *
+     * @param timeToLiveMillis The time a player's results are kept.
+     */
+    public PermissionCache(long timeToLiveMillis) {
+        this.playerMap = new ConcurrentHashMap<>();
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Used to check if a player has a permission.
+     *
+     * @param player     The instance of the player.
+     * @param permission The permission to check.
+     * @return True if the player has the permission.
+     */
+    public boolean hasPermission(@NotNull Player player, @NotNull String permission) {
+        PlayerPermissions permissions = this.playerMap.get(player.getUniqueId());
+
+        // Check if the player's results have expired.
+        if (permissions == null || permissions.hasExpired()) {
+            permissions = new PlayerPermissions(System.currentTimeMillis() + this.timeToLiveMillis);
+            this.playerMap.put(player.getUniqueId(), permissions);
+        }
+
+        Boolean result = permissions.resultMap.get(permission);
+        if (result != null) {
+            this.hits.increment();
+            return result;
+        }
+
+        this.misses.increment();
+        boolean hasPermission = player.hasPermission(permission);
+        permissions.resultMap.put(permission, hasPermission);
+        return hasPermission;
+    }
+
+    /**
+     * Used to forget a player's results.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull PermissionCache invalidate(@NotNull UUID playerUuid) {
+        this.playerMap.remove(playerUuid);
+        return this;
+    }
+
+    /**
+     * Used to forget every player's results.
+     *
+     * @return This instance.
+     */
+    public @NotNull PermissionCache invalidateAll() {
+        this.playerMap.clear();
+        return this;
+    }
+
+    /**
+     * Used to get the number of checks that
+     * were answered from the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Used to get the number of checks that
+     * had to ask the permission plugin.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Used to get the percentage of checks
+     * that were answered from the cache.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        long hits = this.getHits();
+        long total = hits + this.getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Represents a player's cached permission results.
+     */
+    private static class PlayerPermissions {
+
+        private final @NotNull Map<String, Boolean> resultMap;
+        private final long expiresAt;
+
+        private PlayerPermissions(long expiresAt) {
+            this.resultMap = new ConcurrentHashMap<>();
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean hasExpired() {
+            return System.currentTimeMillis() > this.expiresAt;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.cache;
+
+import com.github.minemaniauk.api.database.record.UserRecord;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the user record cache.
+ * Contains the user records of the players on this server,
+ * which are loaded before the player joins.
+ */
+public class UserRecordCache {
+
+    private final @NotNull Map<UUID, UserRecord> recordMap;
+
+    /**
+     * Used to create a new user record cache.
+     */
+    public UserRecordCache() {
+        this.recordMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Used to get a player's cached user record.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional user record.
+     */
+    public @NotNull Optional<UserRecord> get(@NotNull UUID playerUuid) {
+        return Optional.ofNullable(this.recordMap.get(playerUuid));
+    }
+
+    /**
+     * Used to cache a player's user record.
+     *
+     * @param playerUuid The player's uuid.
+     * @param record     The instance of the record.
+     * @return This instance.
+     */
+    public @NotNull UserRecordCache put(@NotNull UUID playerUuid, @NotNull UserRecord record) {
+        this.recordMap.put(playerUuid, record);
+        return this;
+    }
+
+    /**
+     * Used to remove a player's user record from the cache.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull UserRecordCache remove(@NotNull UUID playerUuid) {
+        this.recordMap.remove(playerUuid);
+        return this;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.github.minemaniauk.bukkitapi.chat;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the chat echo filter.
+ * Used when messages are shown to players on this server
+ * before they are sent to the network, so the same message
+ * is not shown a second time when it comes back from kerb.
+ * <p>
+ * The chat event in the shared library has no field for a
+ * message id, so the id is added to the end of the formatted
+ * message as colour codes, which show nothing in game.
+ * It is removed again before the message is shown.
+ * Messages that don't come back in time are forgotten.
+ */
+public class ChatEchoFilter {
+
+    private static final int PURGE_SIZE = 1000;
+    private static final int ID_LENGTH = 12;
+    private static final @NotNull String ID_PREFIX = "&r&r";
+    private static final @NotNull Pattern ID_PATTERN = Pattern.compile(
+            "&r&r((?:&[0-9a-f]){" + ID_LENGTH + "})$"
+    );
+
+    private final boolean enabled;
+    private final long timeToLiveMillis;
+    private final @NotNull Map<String, Long> pendingMap;
+
+    /**
+     * Used to create a new chat echo filter.
+     *
+     * @param enabled          If messages are shown on this server
+     *                         before they are sent to the network.
+     * @param timeToLiveMillis The time to wait for a message to come back.
+     */
+    public ChatEchoFilter(boolean enabled, long timeToLiveMillis) {
+        this.enabled = enabled;
+        this.timeToLiveMillis = Math.max(1000, timeToLiveMillis);
+        this.pendingMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Used to check if messages are shown on this
+     * server before they are sent to the network.
+     *
+     * @return True if local first delivery is enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Used to create a new message id and remember
+     * that its message was already shown on this server.
+     *
+     * @return The message id.
+     */
+    public @NotNull String record() {
+        final long now = System.currentTimeMillis();
+
+        // Stop messages that never came back from building up.
+        if (this.pendingMap.size() >= PURGE_SIZE) {
+            this.pendingMap.values().removeIf(expiresAt -> expiresAt < now);
+        }
+
+        String messageId;
+        do {
+            messageId = ChatEchoFilter.createId();
+        } while (this.pendingMap.putIfAbsent(messageId, now + this.timeToLiveMillis) != null);
+
+        return messageId;
+    }
+
+    /**
+     * Used to check if a message coming back from kerb
+     * was already shown on this server.
+     * Each message id is only matched once.
+     *
+     * @param messageId The message id.
+     * @return True if the message should not be shown again.
+     */
+    public boolean consume(@NotNull String messageId) {
+        Long expiresAt = this.pendingMap.remove(messageId);
+        return expiresAt != null && expiresAt >= System.currentTimeMillis();
+    }
+
+    /**
+     * Used to add a message id to the end of a formatted message.
+     *
+     * @param message   The formatted message.
+     * @param messageId The message id.
+     * @return The formatted message with the id.
+     */
+    public static @NotNull String addId(@NotNull String message, @NotNull String messageId) {
+        StringBuilder builder = new StringBuilder(message.length() + ID_PREFIX.length() + messageId.length() * 2);
+        builder.append(message).append(ID_PREFIX);
+        for (int index = 0; index < messageId.length(); index++) {
+            builder.append('&').append(messageId.charAt(index));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Used to get the message id from the end of a formatted message.
+     *
+     * @param message The formatted message.
+     * @return The optional message id.
+     * It will be empty if the message has no id.
+     */
+    public static @NotNull Optional<String> getId(@NotNull String message) {
+        Matcher matcher = ID_PATTERN.matcher(message);
+        if (!matcher.find()) return Optional.empty();
+        return Optional.of(matcher.group(1).replace("&", ""));
+    }
+
+    /**
+     * Used to remove the message id from the end of a formatted message.
+     *
+     * @param message The formatted message.
+     * @return The formatted message without the id.
+     */
+    public static @NotNull String removeId(@NotNull String message) {
+        return ID_PATTERN.matcher(message).replaceFirst("");
+    }
+
+    private static @NotNull String createId() {
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+        return hex.substring(hex.length() - ID_LENGTH);
+    }
+}
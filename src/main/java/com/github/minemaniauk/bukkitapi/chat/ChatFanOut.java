@@ -0,0 +1,109 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat;
+
+import com.github.cozyplugins.cozylibrary.MessageManager;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import com.github.minemaniauk.bukkitapi.player.OnlinePlayer;
+import com.github.minemaniauk.bukkitapi.scheduler.MainThreadDispatcher;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the chat fan out.
+ * Used to send a chat message to every player on this server.
+ * The message is translated into components once
+ * and the same components are sent to each recipient.
+ */
+public class ChatFanOut {
+
+    private final int playersPerTick;
+
+    /**
+     * Used to create a new chat fan out.
+     *
+     * @param playersPerTick The number of players to send the message to
+     *                       in each main thread task.
+     */
+    public ChatFanOut(int playersPerTick) {
+        this.playersPerTick = Math.max(1, playersPerTick);
+    }
+
+    /**
+     * Used to send a message to every player online
+     * and the console.
+     * This can be called from any thread, the message
+     * is sent to the players on the main thread.
+     *
+     * @param message The message with colour codes.
+     */
+    public void broadcast(@NotNull String message) {
+        String translated = ChatFanOut.translate(message);
+        BaseComponent[] components = TextComponent.fromLegacyText(translated);
+        List<Player> recipientList = new ArrayList<>();
+        for (OnlinePlayer onlinePlayer : MineManiaAPI_BukkitPlugin.getInstance().getOnlinePlayerIndex().getAll()) {
+            recipientList.add(onlinePlayer.getPlayer());
+        }
+
+        // Split the players into slices, so the dispatcher
+        // can spread a large fan out over the next few ticks.
+        MainThreadDispatcher dispatcher = MineManiaAPI_BukkitPlugin.getInstance().getMainThreadDispatcher();
+        for (int start = 0; start < recipientList.size(); start += this.playersPerTick) {
+            List<Player> slice = recipientList.subList(start, Math.min(start + this.playersPerTick, recipientList.size()));
+            dispatcher.submit(() -> ChatFanOut.send(slice, components));
+        }
+
+        Bukkit.getConsoleSender().sendMessage(translated);
+    }
+
+    /**
+     * Used to translate the colour codes in a message,
+     * using the same formatter as {@code PlayerUser.sendMessage}.
+     * No player is given, as the message was already
+     * formatted by the server the player is on.
+     *
+     * @param message The message to translate.
+     * @return The translated message.
+     */
+    public static @NotNull String translate(@NotNull String message) {
+        return MessageManager.parse(message);
+    }
+
+    /**
+     * Used to send the same components to a slice of players.
+     * This should be called on the main thread.
+     *
+     * @param recipientList The players to send the components to.
+     * @param components    The translated message.
+     */
+    static void send(@NotNull List<Player> recipientList, @NotNull BaseComponent[] components) {
+        for (Player player : recipientList) {
+            if (!player.isOnline()) continue;
+            player.spigot().sendMessage(components);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat;
+
+import com.github.minemaniauk.api.format.ChatFormat;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents the chat format cache.
+ * Used to remember the combined chat format and server
+ * whitelist a player last received from the post chat event,
+ * so their next messages can skip asking kerb.
+ * <p>
+ * Messages sent using a remembered result skip the post chat
+ * event entirely, so network moderation can't check or cancel
+ * them until the result expires. Only the local chat filter
+ * still applies. Kerb has no event to tell this server when
+ * a player's result changes, so the time to live is the
+ * only limit on how long a mute or rank change is missed.
+ * <p>
+ * Every invalidation is given a version, and a player's result is
+ * only stored if that player, or every player, has not been
+ * invalidated since the result was asked for. This stops a result
+ * that was already on its way from replacing an invalidation,
+ * without one player leaving throwing away everyone else's results.
+ */
+public class ChatFormatCache {
+
+    private static final long INVALIDATION_TIME_TO_LIVE_MILLIS = 60_000;
+
+    private final boolean enabled;
+    private final long timeToLiveMillis;
+    private final @NotNull Map<UUID, Entry> entryMap;
+    private final @NotNull Map<UUID, Invalidation> invalidationMap;
+    private final @NotNull AtomicLong version;
+    private volatile long invalidatedAllVersion;
+
+    /**
+     * Used to create a new chat format cache.
+     *
+     * @param enabled          If results should be remembered.
+     * @param timeToLiveMillis The time a player's result is remembered.
+     */
+    public ChatFormatCache(boolean enabled, long timeToLiveMillis) {
+        this.enabled = enabled && timeToLiveMillis > 0;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entryMap = new ConcurrentHashMap<>();
+        this.invalidationMap = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+    }
+
+    /**
+     * Used to check if results are remembered.
+     *
+     * @return True if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Used to get the current version.
+     * This should be read before asking kerb
+     * and given back when calling {@link #put}.
+     *
+     * @return The current version.
+     */
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * Used to get a player's remembered result.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional entry.
+     * It will be empty if there is no result or it has expired.
+     */
+    public @NotNull Optional<Entry> get(@NotNull UUID playerUuid) {
+        if (!this.enabled) return Optional.empty();
+
+        Entry entry = this.entryMap.get(playerUuid);
+        if (entry == null) return Optional.empty();
+
+        // Check if the entry has expired.
+        if (System.currentTimeMillis() > entry.expiresAt()) {
+            this.entryMap.remove(playerUuid, entry);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry);
+    }
+
+    /**
+     * Used to remember a player's result.
+     * Cancelled results should never be given.
+     *
+     * @param playerUuid      The player's uuid.
+     * @param version         The version read before kerb was asked.
+     * @param chatFormat      The combined chat format.
+     *                        It should not be changed after this is called.
+     * @param serverWhiteList The combined server whitelist.
+     * @return This instance.
+     */
+    public @NotNull ChatFormatCache put(@NotNull UUID playerUuid, long version, @NotNull ChatFormat chatFormat, @NotNull List<String> serverWhiteList) {
+        if (!this.enabled) return this;
+
+        Entry entry = new Entry(chatFormat, List.copyOf(serverWhiteList), System.currentTimeMillis() + this.timeToLiveMillis);
+        this.entryMap.put(playerUuid, entry);
+
+        // Check if the player was invalidated while kerb was being asked.
+        if (this.isInvalidatedSince(playerUuid, version)) this.entryMap.remove(playerUuid, entry);
+        return this;
+    }
+
+    /**
+     * Used to forget a player's result.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull ChatFormatCache invalidate(@NotNull UUID playerUuid) {
+        final long now = System.currentTimeMillis();
+        this.invalidationMap.put(playerUuid, new Invalidation(this.version.incrementAndGet(), now));
+        this.entryMap.remove(playerUuid);
+
+        // Forget invalidations older than any request to kerb could take.
+        this.invalidationMap.values().removeIf(invalidation ->
+                now - invalidation.invalidatedAt() > INVALIDATION_TIME_TO_LIVE_MILLIS
+        );
+        return this;
+    }
+
+    /**
+     * Used to forget every player's result,
+     * for example when ranks or formats change.
+     *
+     * @return This instance.
+     */
+    public @NotNull ChatFormatCache invalidateAll() {
+        this.invalidatedAllVersion = this.version.incrementAndGet();
+        this.entryMap.clear();
+        return this;
+    }
+
+    private boolean isInvalidatedSince(@NotNull UUID playerUuid, long version) {
+        if (this.invalidatedAllVersion > version) return true;
+
+        Invalidation invalidation = this.invalidationMap.get(playerUuid);
+        return invalidation != null && invalidation.version() > version;
+    }
+
+    /**
+     * Represents a remembered result.
+     *
+     * @param chatFormat      The combined chat format.
+     * @param serverWhiteList The unmodifiable combined server whitelist.
+     * @param expiresAt       The time the result should be asked for again.
+     */
+    public record Entry(@NotNull ChatFormat chatFormat, @NotNull List<String> serverWhiteList, long expiresAt) {
+    }
+
+    /**
+     * Represents a player's last invalidation.
+     *
+     * @param version       The version given to the invalidation.
+     * @param invalidatedAt The time the player was invalidated.
+     */
+    private record Invalidation(long version, long invalidatedAt) {
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat;
+
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Represents the chat pipeline.
+ * Used to process player messages away from the
+ * bukkit chat threads while making sure each player's
+ * messages are handled in the order they were sent.
+ * <p>
+ * The number of threads and the number of messages
+ * in flight are set separately. Messages over the
+ * thread count wait in the queue instead of each
+ * holding a thread of their own.
+ */
+public class ChatPipeline {
+
+    private final @NotNull ExecutorService executor;
+    private final @NotNull Executor releasingExecutor;
+    private final @NotNull Semaphore inFlight;
+    private final @NotNull Map<UUID, CompletableFuture<Void>> tailMap;
+    private final int maxInFlight;
+
+    /**
+     * Used to create a new chat pipeline.
+     *
+     * @param threads     The number of worker threads.
+     * @param maxInFlight The maximum number of messages
+     *                    that can be queued or processing at once.
+     */
+    public ChatPipeline(int threads, int maxInFlight) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-Chat-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.releasingExecutor = this::execute;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.tailMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Used to queue a task for a player.
+     * The task will only run once the player's
+     * previous tasks have finished.
+     *
+     * @param playerUuid The player's uuid.
+     * @param task       The task to run.
+     * @return False if there are already too many messages in flight
+     * or the pipeline has been shut down.
+     */
+    public boolean submit(@NotNull UUID playerUuid, @NotNull Runnable task) {
+        if (!this.inFlight.tryAcquire()) return false;
+
+        // Chain the task onto the end of the player's queue.
+        CompletableFuture<Void> future = this.tailMap.compute(playerUuid, (uuid, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        .thenRunAsync(() -> this.run(task), this.releasingExecutor)
+        );
+
+        // Remove the queue once it has emptied.
+        future.whenComplete((result, throwable) -> this.tailMap.remove(playerUuid, future));
+
+        // Check if the task was rejected straight away,
+        // for example because the pipeline has shut down.
+        return !future.isCompletedExceptionally();
+    }
+
+    /**
+     * Used to get the number of messages that are
+     * currently queued or processing.
+     *
+     * @return The number of messages in flight.
+     */
+    public int getInFlight() {
+        return this.maxInFlight - this.inFlight.availablePermits();
+    }
+
+    /**
+     * Used to stop the pipeline.
+     * Messages already queued are given a short
+     * amount of time to finish.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Used to hand a task to the worker threads.
+     * If the task is rejected it will never run,
+     * so its place in flight is given back.
+     *
+     * @param runnable The task to run.
+     */
+    private void execute(@NotNull Runnable runnable) {
+        try {
+            this.executor.execute(runnable);
+        } catch (RejectedExecutionException exception) {
+            this.inFlight.release();
+            throw exception;
+        }
+    }
+
+    private void run(@NotNull Runnable task) {
+        try {
+            task.run();
+        } catch (Exception exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Exception while processing a chat message.", exception);
+        } finally {
+            this.inFlight.release();
+        }
+    }
+}
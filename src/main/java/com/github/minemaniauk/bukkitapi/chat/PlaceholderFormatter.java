@@ -0,0 +1,207 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat;
+
+import com.github.minemaniauk.api.format.ChatFormat;
+import com.github.minemaniauk.bukkitapi.dependency.PlaceholderAPIDependency;
+import com.github.minemaniauk.bukkitapi.dependency.PlaceholderAPIHelper;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the placeholder formatter.
+ * Used to apply a chat format to a player's message
+ * and parse the placeholders in the format.
+ * <p>
+ * Each format is split once into literal text, placeholders
+ * and the position of the message, so only the placeholders
+ * are parsed for each message. The player's message is
+ * not parsed for placeholders.
+ * A player's placeholder values are remembered for a short time.
+ */
+public class PlaceholderFormatter {
+
+    private static final @NotNull String SENTINEL = "\u0000message\u0000";
+    private static final @NotNull Pattern PLACEHOLDER_PATTERN = Pattern.compile("%[^%\\s]+%");
+    private static final int MAX_TEMPLATES = 256;
+
+    private final long cacheMillis;
+    private final @NotNull Map<String, Template> templateMap;
+    private final @NotNull Map<UUID, Map<String, Value>> valueMap;
+
+    /**
+     * Used to create a new placeholder formatter.
+     *
+     * @param cacheMillis The time a player's placeholder values are remembered.
+     *                    When 0 or less placeholders are parsed every time.
+     */
+    public PlaceholderFormatter(long cacheMillis) {
+        this.cacheMillis = cacheMillis;
+        this.templateMap = new ConcurrentHashMap<>();
+        this.valueMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Used to format a player's message.
+     *
+     * @param chatFormat The chat format to apply.
+     * @param message    The message the player sent.
+     * @param player     The player that sent the message.
+     * @return The formatted message with its placeholders parsed.
+     */
+    public @NotNull String format(@NotNull ChatFormat chatFormat, @NotNull String message, @NotNull Player player) {
+        final PlaceholderAPIHelper helper = PlaceholderAPIDependency.getInstance();
+        final String format = chatFormat.parse(SENTINEL);
+
+        // Check if the format changes the message itself,
+        // in which case it can not be split up.
+        if (!format.contains(SENTINEL)) {
+            return helper.parse(chatFormat.parse(message), player);
+        }
+
+        Template template = this.templateMap.get(format);
+        if (template == null) {
+            if (this.templateMap.size() >= MAX_TEMPLATES) this.templateMap.clear();
+            template = Template.compile(format);
+            this.templateMap.put(format, template);
+        }
+
+        // Check if there is nothing to parse.
+        if (!template.hasPlaceholders() || !PlaceholderAPIDependency.isEnabled()) {
+            return template.render(message, Function.identity());
+        }
+
+        return template.render(message, placeholder -> this.resolve(player, placeholder, helper));
+    }
+
+    /**
+     * Used to forget a player's placeholder values.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull PlaceholderFormatter remove(@NotNull UUID playerUuid) {
+        this.valueMap.remove(playerUuid);
+        return this;
+    }
+
+    private @NotNull String resolve(@NotNull Player player, @NotNull String placeholder, @NotNull PlaceholderAPIHelper helper) {
+        if (this.cacheMillis <= 0) return helper.parse(placeholder, player);
+
+        final long now = System.currentTimeMillis();
+        Map<String, Value> playerValueMap = this.valueMap.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>());
+
+        // Check if the value is remembered.
+        Value value = playerValueMap.get(placeholder);
+        if (value != null && value.expiresAt() > now) return value.text();
+
+        String text = helper.parse(placeholder, player);
+        playerValueMap.put(placeholder, new Value(text, now + this.cacheMillis));
+        return text;
+    }
+
+    /**
+     * Represents a remembered placeholder value.
+     *
+     * @param text      The parsed placeholder.
+     * @param expiresAt The time the value should be parsed again.
+     */
+    private record Value(@NotNull String text, long expiresAt) {
+    }
+
+    /**
+     * Represents a format split into segments.
+     *
+     * @param segments        The segments in order.
+     * @param hasPlaceholders If any of the segments are placeholders.
+     * @param length          The length of the literal text.
+     */
+    private record Template(@NotNull Segment[] segments, boolean hasPlaceholders, int length) {
+
+        private @NotNull String render(@NotNull String message, @NotNull Function<String, String> resolver) {
+            StringBuilder builder = new StringBuilder(this.length + message.length() + 16);
+            for (Segment segment : this.segments) {
+                switch (segment.type()) {
+                    case LITERAL -> builder.append(segment.text());
+                    case PLACEHOLDER -> builder.append(resolver.apply(segment.text()));
+                    case MESSAGE -> builder.append(message);
+                }
+            }
+            return builder.toString();
+        }
+
+        private static @NotNull Template compile(@NotNull String format) {
+            List<Segment> segmentList = new ArrayList<>();
+            String[] parts = format.split(Pattern.quote(SENTINEL), -1);
+
+            for (int index = 0; index < parts.length; index++) {
+                Template.tokenise(parts[index], segmentList);
+                if (index < parts.length - 1) segmentList.add(new Segment(SegmentType.MESSAGE, ""));
+            }
+
+            boolean hasPlaceholders = false;
+            int length = 0;
+            for (Segment segment : segmentList) {
+                if (segment.type() == SegmentType.PLACEHOLDER) hasPlaceholders = true;
+                length += segment.text().length();
+            }
+
+            return new Template(segmentList.toArray(new Segment[0]), hasPlaceholders, length);
+        }
+
+        private static void tokenise(@NotNull String part, @NotNull List<Segment> segmentList) {
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(part);
+            int last = 0;
+
+            while (matcher.find()) {
+                if (matcher.start() > last) {
+                    segmentList.add(new Segment(SegmentType.LITERAL, part.substring(last, matcher.start())));
+                }
+                segmentList.add(new Segment(SegmentType.PLACEHOLDER, matcher.group()));
+                last = matcher.end();
+            }
+
+            if (last < part.length()) segmentList.add(new Segment(SegmentType.LITERAL, part.substring(last)));
+        }
+    }
+
+    /**
+     * Represents a part of a format.
+     *
+     * @param type The type of segment.
+     * @param text The literal text or placeholder.
+     */
+    private record Segment(@NotNull SegmentType type, @NotNull String text) {
+    }
+
+    private enum SegmentType {
+        LITERAL, PLACEHOLDER, MESSAGE
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat.filter;
+
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import com.github.squishylib.configuration.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Represents the chat filter.
+ * Used to reject messages on this server before
+ * they are sent to kerb.
+ * Rules are loaded and compiled once from the configuration
+ * and are checked in order, stopping at the first match.
+ */
+public class ChatFilter {
+
+    private final @NotNull List<Entry> entryList;
+    private final @NotNull LongAdder checked;
+    private final @NotNull LongAdder totalNanos;
+
+    /**
+     * Used to create a new chat filter.
+     *
+     * @param entryList The rules and the message sent
+     *                  to a player when each rule rejects them.
+     */
+    public ChatFilter(@NotNull List<Entry> entryList) {
+        this.entryList = List.copyOf(entryList);
+        this.checked = new LongAdder();
+        this.totalNanos = new LongAdder();
+    }
+
+    /**
+     * Used to check a message against every rule.
+     *
+     * @param message The message sent by the player.
+     * @return The optional entry of the rule that rejected the message.
+     * It will be empty if the message is allowed.
+     */
+    public @NotNull Optional<Entry> check(@NotNull String message) {
+        final long start = System.nanoTime();
+
+        try {
+            for (Entry entry : this.entryList) {
+                if (!entry.rule().matches(message)) continue;
+                entry.hits().increment();
+                return Optional.of(entry);
+            }
+            return Optional.empty();
+
+        } finally {
+            this.checked.increment();
+            this.totalNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Used to get the number of messages each rule has rejected.
+     *
+     * @return The map of rule names to hits, in the order they are checked.
+     */
+    public @NotNull Map<String, Long> getHits() {
+        Map<String, Long> hitMap = new LinkedHashMap<>();
+        for (Entry entry : this.entryList) {
+            hitMap.put(entry.rule().getName(), entry.hits().sum());
+        }
+        return hitMap;
+    }
+
+    /**
+     * Used to get the number of messages that have been checked.
+     *
+     * @return The number of messages checked.
+     */
+    public long getChecked() {
+        return this.checked.sum();
+    }
+
+    /**
+     * Used to get the average time spent checking a message.
+     *
+     * @return The average time in nanoseconds.
+     */
+    public long getAverageNanos() {
+        long checked = this.getChecked();
+        return checked == 0 ? 0 : this.totalNanos.sum() / checked;
+    }
+
+    /**
+     * Used to create a chat filter from a section of the configuration.
+     * Each key in the rules section is a rule with a type of
+     * {@code regex} and a list of {@code patterns}, or a type of
+     * {@code words} and a list of {@code words}.
+     * If there are no rules, single digit messages are rejected.
+     *
+     * @param section The filter section of the configuration.
+     * @return The chat filter.
+     */
+    public static @NotNull ChatFilter load(@Nullable ConfigurationSection section) {
+        List<Entry> entryList = new ArrayList<>();
+
+        // Check if the filter is disabled.
+        if (section != null && !section.getBoolean("enabled", true)) return new ChatFilter(entryList);
+
+        ConfigurationSection rules = section == null ? null : section.getSection("rules");
+        if (rules == null || rules.getKeys().isEmpty()) {
+            entryList.add(new Entry(new RegexRule("single_digit", List.of(Pattern.compile("^[0-9]$"))), "", new LongAdder()));
+            return new ChatFilter(entryList);
+        }
+
+        for (String name : rules.getKeys()) {
+            ConfigurationSection ruleSection = rules.getSection(name);
+            ChatFilterRule rule = ChatFilter.loadRule(name, ruleSection);
+            if (rule == null) continue;
+
+            String message = ruleSection.getString("message");
+            entryList.add(new Entry(rule, message == null ? "" : message, new LongAdder()));
+        }
+
+        return new ChatFilter(entryList);
+    }
+
+    private static @Nullable ChatFilterRule loadRule(@NotNull String name, @NotNull ConfigurationSection section) {
+        String type = section.getString("type");
+
+        switch (type == null ? "" : type.toLowerCase(Locale.ROOT)) {
+            case "regex" -> {
+                List<Pattern> patternList = new ArrayList<>();
+                for (String pattern : section.getListString("patterns", new ArrayList<>())) {
+                    try {
+                        patternList.add(Pattern.compile(pattern));
+                    } catch (PatternSyntaxException exception) {
+                        MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                                .warning("Chat filter rule " + name + " has an invalid pattern " + pattern + ", skipping it.");
+                    }
+                }
+                return new RegexRule(name, patternList);
+            }
+            case "words" -> {
+                return new WordListRule(
+                        name,
+                        section.getListString("words", new ArrayList<>()),
+                        section.getBoolean("whole_words", true)
+                );
+            }
+            default -> {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .warning("Chat filter rule " + name + " has an unknown type " + type + ", skipping it.");
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Represents a rule in the filter.
+     *
+     * @param rule    The compiled rule.
+     * @param message The message sent to the player when the rule
+     *                rejects their message. It can be empty.
+     * @param hits    The number of messages the rule has rejected.
+     */
+    public record Entry(@NotNull ChatFilterRule rule, @NotNull String message, @NotNull LongAdder hits) {
+    }
+}
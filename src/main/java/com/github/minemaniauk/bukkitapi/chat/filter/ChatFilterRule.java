@@ -0,0 +1,46 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a chat filter rule.
+ * Rules are compiled once when they are created,
+ * so checking a message should not allocate.
+ */
+public interface ChatFilterRule {
+
+    /**
+     * Used to get the name of the rule.
+     *
+     * @return The name of the rule.
+     */
+    @NotNull String getName();
+
+    /**
+     * Used to check if a message breaks this rule.
+     *
+     * @param message The message sent by the player.
+     * @return True if the message should be rejected.
+     */
+    boolean matches(@NotNull String message);
+}
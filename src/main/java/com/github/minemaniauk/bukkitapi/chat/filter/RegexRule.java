@@ -0,0 +1,60 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Represents a chat filter rule that rejects
+ * messages containing a match for any of its patterns.
+ */
+public class RegexRule implements ChatFilterRule {
+
+    private final @NotNull String name;
+    private final @NotNull Pattern[] patterns;
+
+    /**
+     * Used to create a new regex rule.
+     *
+     * @param name     The name of the rule.
+     * @param patterns The compiled patterns.
+     */
+    public RegexRule(@NotNull String name, @NotNull List<Pattern> patterns) {
+        this.name = name;
+        this.patterns = patterns.toArray(new Pattern[0]);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    @Override
+    public boolean matches(@NotNull String message) {
+        for (Pattern pattern : this.patterns) {
+            if (pattern.matcher(message).find()) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents a chat filter rule that rejects messages
+ * containing any word from a list.
+ * Every word is checked in a single pass over the message.
+ */
+public class WordListRule implements ChatFilterRule {
+
+    private final @NotNull String name;
+    private final @NotNull WordMatcher matcher;
+    private final boolean wholeWords;
+
+    /**
+     * Used to create a new word list rule.
+     * Words are not case-sensitive.
+     *
+     * @param name       The name of the rule.
+     * @param wordList   The list of words to reject.
+     * @param wholeWords If words should only match when they are
+     *                   not part of a larger word.
+     */
+    public WordListRule(@NotNull String name, @NotNull List<String> wordList, boolean wholeWords) {
+        this.name = name;
+        this.matcher = new WordMatcher(wordList);
+        this.wholeWords = wholeWords;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    @Override
+    public boolean matches(@NotNull String message) {
+        return this.matcher.containsMatch(message, this.wholeWords);
+    }
+}
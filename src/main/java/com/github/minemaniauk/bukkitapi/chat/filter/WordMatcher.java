@@ -0,0 +1,134 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat.filter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Represents a word matcher.
+ * Used to find any of a list of words in a message
+ * in a single pass, using an Aho-Corasick automaton
+ * that is built once when the matcher is created.
+ * Matching is not case-sensitive.
+ */
+public class WordMatcher {
+
+    private final @NotNull Node root;
+
+    /**
+     * Used to create a new word matcher.
+     *
+     * @param wordList The list of words to match.
+     */
+    public WordMatcher(@NotNull List<String> wordList) {
+        this.root = new Node();
+
+        // Add each word to the trie.
+        for (String word : wordList) {
+            String trimmed = word.trim();
+            if (trimmed.isEmpty()) continue;
+
+            Node node = this.root;
+            for (int index = 0; index < trimmed.length(); index++) {
+                node = node.children.computeIfAbsent(Character.toLowerCase(trimmed.charAt(index)), key -> new Node());
+            }
+            node.lengths = WordMatcher.merge(node.lengths, new int[]{trimmed.length()});
+        }
+
+        // Link each node to the longest suffix that is also in the trie.
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : this.root.children.values()) {
+            child.fail = this.root;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                Node child = entry.getValue();
+                Node fail = node.fail;
+                while (fail != null && !fail.children.containsKey(entry.getKey())) fail = fail.fail;
+
+                child.fail = fail == null ? this.root : fail.children.get(entry.getKey());
+                child.lengths = WordMatcher.merge(child.lengths, child.fail.lengths);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Used to check if a message contains any of the words.
+     *
+     * @param message    The message to check.
+     * @param wholeWords If a word should only match when it is
+     *                   not part of a larger word.
+     * @return True if a word was found.
+     */
+    public boolean containsMatch(@NotNull String message, boolean wholeWords) {
+        Node node = this.root;
+
+        for (int index = 0; index < message.length(); index++) {
+            char character = Character.toLowerCase(message.charAt(index));
+            while (node != this.root && !node.children.containsKey(character)) node = node.fail;
+            node = node.children.getOrDefault(character, this.root);
+
+            for (int length : node.lengths) {
+                if (!wholeWords) return true;
+                if (WordMatcher.isBoundary(message, index - length) && WordMatcher.isBoundary(message, index + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isBoundary(@NotNull String message, int index) {
+        return index < 0 || index >= message.length() || !Character.isLetterOrDigit(message.charAt(index));
+    }
+
+    private static int @NotNull [] merge(int @NotNull [] first, int @NotNull [] second) {
+        if (second.length == 0) return first;
+        if (first.length == 0) return second;
+
+        int[] merged = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, merged, first.length, second.length);
+        return merged;
+    }
+
+    /**
+     * Represents a node in the automaton.
+     */
+    private static class Node {
+
+        private final @NotNull Map<Character, Node> children = new HashMap<>();
+        private @Nullable Node fail;
+        private int @NotNull [] lengths = new int[0];
+    }
+}
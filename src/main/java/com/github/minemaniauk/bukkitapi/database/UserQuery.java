@@ -0,0 +1,283 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.database;
+
+import com.github.minemaniauk.bukkitapi.DatabaseConnection;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Level;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.setOnInsert;
+
+/**
+ * Represents the user query.
+ * Used to look up users directly in the mongo user collection,
+ * only fetching the uuid and name of the matching record.
+ * Names are matched without case-sensitivity, using
+ * an index with the same collation.
+ * Names can also be written to many users at once.
+ */
+public class UserQuery {
+
+    private static final @NotNull String UUID_FIELD = "mc_uuid";
+    private static final @NotNull String NAME_FIELD = "mc_name";
+    private static final @NotNull String PAWS_FIELD = "paws";
+    private static final @NotNull Collation NAME_COLLATION = Collation.builder()
+            .locale("en")
+            .collationStrength(CollationStrength.SECONDARY)
+            .build();
+    private static final @NotNull Bson PROJECTION = fields(include(UUID_FIELD, NAME_FIELD), excludeId());
+
+    private final @Nullable String collectionName;
+
+    /**
+     * Used to create a new user query.
+     *
+     * @param collectionName The name of the user collection.
+     *                       If it is null or blank, lookups will
+     *                       always be empty and should fall back
+     *                       to the api's database.
+     */
+    public UserQuery(@Nullable String collectionName) {
+        this.collectionName = collectionName == null || collectionName.isBlank() ? null : collectionName;
+    }
+
+    /**
+     * Used to check if lookups can be made.
+     *
+     * @return True if a user collection is set
+     * and the database is connected.
+     */
+    public boolean isEnabled() {
+        return this.collectionName != null && DatabaseConnection.getMongoDatabase() != null;
+    }
+
+    /**
+     * Used to create the indexes used by the lookups,
+     * if they or an equivalent index don't already exist.
+     * If the case-insensitive name index can't be created,
+     * name lookups will scan the whole collection, so this
+     * is logged as an error.
+     */
+    public void ensureIndexes() {
+        if (!this.isEnabled()) return;
+
+        MongoCollection<Document> collection = this.getCollection();
+        List<Document> indexList = new ArrayList<>();
+        try {
+            collection.listIndexes().into(indexList);
+        } catch (Exception exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Unable to list the user collection indexes.", exception);
+        }
+
+        // Check if the uuid index needs to be created.
+        // It is left unnamed so it matches the default mc_uuid_1.
+        if (!UserQuery.hasIndex(indexList, UUID_FIELD, false)) {
+            try {
+                collection.createIndex(Indexes.ascending(UUID_FIELD));
+            } catch (Exception exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .log(Level.WARNING, "Unable to create the user collection uuid index.", exception);
+            }
+        }
+
+        // Check if the case-insensitive name index needs to be created.
+        if (!UserQuery.hasIndex(indexList, NAME_FIELD, true)) {
+            try {
+                collection.createIndex(Indexes.ascending(NAME_FIELD), new IndexOptions()
+                        .name("mc_name_case_insensitive")
+                        .collation(NAME_COLLATION));
+            } catch (Exception exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .log(Level.SEVERE, "Unable to create the case-insensitive index on " + NAME_FIELD
+                                + " in " + this.collectionName + ". Looking up users by name will scan the "
+                                + "whole collection until an index with locale en and strength 2 exists.", exception);
+            }
+        }
+    }
+
+    /**
+     * Used to find a user from their uuid.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional user summary.
+     */
+    public @NotNull Optional<UserSummary> find(@NotNull UUID playerUuid) {
+        if (!this.isEnabled()) return Optional.empty();
+
+        Document document = this.getCollection()
+                .find(eq(UUID_FIELD, playerUuid.toString()))
+                .projection(PROJECTION)
+                .first();
+
+        return UserQuery.decode(document);
+    }
+
+    /**
+     * Used to find a user from their name.
+     * The name is not case-sensitive.
+     *
+     * @param name The player's name.
+     * @return The optional user summary.
+     */
+    public @NotNull Optional<UserSummary> find(@NotNull String name) {
+        if (!this.isEnabled()) return Optional.empty();
+
+        Document document = this.getCollection()
+                .find(eq(NAME_FIELD, name))
+                .collation(NAME_COLLATION)
+                .projection(PROJECTION)
+                .first();
+
+        return UserQuery.decode(document);
+    }
+
+    /**
+     * Used to find the paws of many users in one query.
+     * Users without a record are not included.
+     *
+     * @param playerUuids The players' uuids.
+     * @return The map of uuid to paws.
+     */
+    public @NotNull Map<UUID, Long> findPaws(@NotNull Collection<UUID> playerUuids) {
+        Map<UUID, Long> pawsMap = new HashMap<>();
+        if (!this.isEnabled() || playerUuids.isEmpty()) return pawsMap;
+
+        List<String> uuidList = new ArrayList<>(playerUuids.size());
+        for (UUID playerUuid : playerUuids) uuidList.add(playerUuid.toString());
+
+        for (Document document : this.getCollection()
+                .find(in(UUID_FIELD, uuidList))
+                .projection(fields(include(UUID_FIELD, PAWS_FIELD), excludeId()))) {
+
+            String uuid = document.getString(UUID_FIELD);
+            Object paws = document.get(PAWS_FIELD);
+            if (uuid == null) continue;
+
+            try {
+                pawsMap.put(UUID.fromString(uuid), paws instanceof Number number ? number.longValue() : 0L);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return pawsMap;
+    }
+
+    /**
+     * Used to write the names of many users in one request.
+     * Only the name is changed, so other fields such as paws
+     * are never overwritten. Users without a record are
+     * created with no paws.
+     *
+     * @param nameMap The map of uuid to the player's current name.
+     */
+    public void writeNames(@NotNull Map<UUID, String> nameMap) {
+        if (!this.isEnabled() || nameMap.isEmpty()) return;
+
+        List<WriteModel<Document>> writeList = new ArrayList<>(nameMap.size());
+        for (Map.Entry<UUID, String> entry : nameMap.entrySet()) {
+            writeList.add(new UpdateOneModel<>(
+                    eq(UUID_FIELD, entry.getKey().toString()),
+                    combine(set(NAME_FIELD, entry.getValue()), setOnInsert(PAWS_FIELD, 0L)),
+                    new UpdateOptions().upsert(true)
+            ));
+        }
+
+        this.getCollection().bulkWrite(writeList, new BulkWriteOptions().ordered(false));
+    }
+
+    private @NotNull MongoCollection<Document> getCollection() {
+        MongoDatabase database = DatabaseConnection.getMongoDatabase();
+        return database.getCollection(this.collectionName);
+    }
+
+    /**
+     * Used to check if a list of indexes contains an ascending
+     * index on a single field with the name collation, or
+     * without a collation.
+     *
+     * @param indexList The list of index documents.
+     * @param field     The field.
+     * @param collation True to look for the name collation.
+     * @return True if an equivalent index exists.
+     */
+    private static boolean hasIndex(@NotNull List<Document> indexList, @NotNull String field, boolean collation) {
+        for (Document index : indexList) {
+            Document key = index.get("key", Document.class);
+            if (key == null || key.size() != 1 || !(key.get(field) instanceof Number order) || order.intValue() != 1) {
+                continue;
+            }
+
+            Document indexCollation = index.get("collation", Document.class);
+            boolean simple = indexCollation == null || "simple".equals(indexCollation.getString("locale"));
+            if (!collation && simple) return true;
+            if (collation && !simple
+                    && NAME_COLLATION.getLocale().equals(indexCollation.getString("locale"))
+                    && indexCollation.get("strength") instanceof Number strength
+                    && strength.intValue() == NAME_COLLATION.getStrength().getIntRepresentation()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @NotNull Optional<UserSummary> decode(@Nullable Document document) {
+        if (document == null) return Optional.empty();
+
+        String uuid = document.getString(UUID_FIELD);
+        String name = document.getString(NAME_FIELD);
+        if (uuid == null || name == null) return Optional.empty();
+
+        try {
+            return Optional.of(new UserSummary(UUID.fromString(uuid), name));
+        } catch (IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+}
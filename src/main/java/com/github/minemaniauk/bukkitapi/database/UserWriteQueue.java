@@ -0,0 +1,230 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.database;
+
+import com.github.minemaniauk.api.database.collection.UserCollection;
+import com.github.minemaniauk.api.database.record.UserRecord;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Represents the user write queue.
+ * Used to write players' names to the database in the background.
+ * Repeated writes to the same user are collapsed into one,
+ * and the queue is written in batches at a fixed interval
+ * or when enough names are waiting.
+ * <p>
+ * When the mongo user collection is configured, each batch is
+ * written in one bulk request that only sets the name, so changes
+ * made elsewhere, such as to paws, are never overwritten.
+ * Otherwise each user's record is loaded again just before it is
+ * written through the api's database.
+ */
+public class UserWriteQueue {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final @NotNull Map<UUID, PendingName> pendingMap;
+    private final int batchSize;
+    private final @NotNull ScheduledExecutorService scheduler;
+    private final @NotNull AtomicBoolean flushQueued;
+
+    /**
+     * Used to create a new user write queue.
+     *
+     * @param intervalMillis The time between each flush.
+     * @param batchSize      The number of waiting names that
+     *                       will cause a flush before the interval.
+     */
+    public UserWriteQueue(long intervalMillis, int batchSize) {
+        this.pendingMap = new ConcurrentHashMap<>();
+        this.batchSize = Math.max(1, batchSize);
+        this.flushQueued = new AtomicBoolean(false);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-UserWriteQueue");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(50, intervalMillis);
+        this.scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Used to queue a player's name to be written.
+     * If the player already has a name waiting,
+     * it will be replaced by this one.
+     * The user's record is created if it does not exist.
+     *
+     * @param playerUuid The player's uuid.
+     * @param playerName The player's current name.
+     * @return This instance.
+     */
+    public @NotNull UserWriteQueue queue(@NotNull UUID playerUuid, @NotNull String playerName) {
+        this.pendingMap.put(playerUuid, new PendingName(playerName, 0));
+
+        // Check if the batch is full.
+        if (this.pendingMap.size() >= this.batchSize && this.flushQueued.compareAndSet(false, true)) {
+            this.scheduler.execute(this::flush);
+        }
+        return this;
+    }
+
+    /**
+     * Used to get the number of names waiting to be written.
+     *
+     * @return The number of names waiting.
+     */
+    public int getPendingAmount() {
+        return this.pendingMap.size();
+    }
+
+    /**
+     * Used to stop the queue and write
+     * every name that is still waiting.
+     */
+    public void shutdown() {
+        this.scheduler.shutdown();
+        try {
+            this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Write anything left on this thread.
+        this.flush();
+    }
+
+    /**
+     * Used to write every name that is waiting.
+     */
+    private synchronized void flush() {
+        this.flushQueued.set(false);
+        if (this.pendingMap.isEmpty()) return;
+
+        // Take every waiting name out of the queue.
+        Map<UUID, PendingName> batchMap = new HashMap<>();
+        for (UUID uuid : new ArrayList<>(this.pendingMap.keySet())) {
+            PendingName pendingName = this.pendingMap.remove(uuid);
+            if (pendingName != null) batchMap.put(uuid, pendingName);
+        }
+        if (batchMap.isEmpty()) return;
+
+        // Check if the names can be written in one request.
+        UserQuery userQuery = MineManiaAPI_BukkitPlugin.getInstance().getUserQuery();
+        if (userQuery.isEnabled()) {
+            Map<UUID, String> nameMap = new HashMap<>();
+            batchMap.forEach((uuid, pendingName) -> nameMap.put(uuid, pendingName.name()));
+
+            try {
+                userQuery.writeNames(nameMap);
+            } catch (Exception exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .log(Level.WARNING, "Unable to write " + nameMap.size() + " user records.", exception);
+                batchMap.forEach(this::retry);
+            }
+            return;
+        }
+
+        UserCollection collection = MineManiaAPI_BukkitPlugin.getInstance().getAPI()
+                .getDatabase()
+                .getTable(UserCollection.class);
+
+        List<Map.Entry<UUID, PendingName>> entryList = new ArrayList<>(batchMap.entrySet());
+        for (int index = 0; index < entryList.size(); index++) {
+            Map.Entry<UUID, PendingName> entry = entryList.get(index);
+            try {
+                this.write(collection, entry.getKey(), entry.getValue().name());
+            } catch (Exception exception) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .log(Level.WARNING, "Unable to write user record for " + entry.getKey() + ".", exception);
+                this.retry(entry.getKey(), entry.getValue());
+
+                // Put back the names that were not tried yet.
+                for (Map.Entry<UUID, PendingName> untried : entryList.subList(index + 1, entryList.size())) {
+                    this.pendingMap.putIfAbsent(untried.getKey(), untried.getValue());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Used to put a name that failed to be written back
+     * in the queue, unless a newer one was queued or it
+     * has failed too many times.
+     *
+     * @param playerUuid  The player's uuid.
+     * @param pendingName The name that failed to be written.
+     */
+    private void retry(@NotNull UUID playerUuid, @NotNull PendingName pendingName) {
+
+        // Check if the name has failed too many times.
+        if (pendingName.attempts() + 1 >= MAX_ATTEMPTS) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .warning("Unable to write user record for " + playerUuid
+                            + " after " + MAX_ATTEMPTS + " attempts, dropping it.");
+            return;
+        }
+
+        this.pendingMap.putIfAbsent(playerUuid, new PendingName(pendingName.name(), pendingName.attempts() + 1));
+    }
+
+    private void write(@NotNull UserCollection collection, @NotNull UUID playerUuid, @NotNull String playerName) {
+        UserRecord record = collection.getUserRecord(playerUuid).orElse(null);
+
+        // Check if they are not in the database.
+        if (record == null) {
+            record = new UserRecord();
+            record.mc_uuid = playerUuid.toString();
+            record.mc_name = playerName;
+            collection.insertRecord(record);
+            return;
+        }
+
+        // Check if the name is already up to date.
+        if (playerName.equals(record.mc_name)) return;
+
+        record.mc_name = playerName;
+        collection.insertRecord(record);
+    }
+
+    /**
+     * Represents a name waiting to be written.
+     *
+     * @param name     The player's name.
+     * @param attempts The number of failed attempts to write it.
+     */
+    private record PendingName(@NotNull String name, int attempts) {
+    }
+}
@@ -22,27 +22,76 @@ package com.github.minemaniauk.bukkitapi.dependency;
 
 import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-public class PlaceholderAPIDependency {
+/**
+ * Represents the placeholder api dependency.
+ * The helper is resolved once and swapped when
+ * placeholder api is enabled or disabled.
+ */
+public class PlaceholderAPIDependency implements Listener {
+
+    private static final @NotNull String PLUGIN_NAME = "PlaceholderAPI";
+    private static final @NotNull PlaceholderAPIHelper EMPTY = (message, player) -> message;
+
+    private static volatile @NotNull PlaceholderAPIHelper instance = PlaceholderAPIDependency.EMPTY;
+    private static volatile boolean resolved;
 
     /**
-     * Used to get the instance of hte placeholder adapter.
+     * Used to get the instance of the placeholder adapter.
+     * If placeholder api is not installed, the helper
+     * will return messages without changing them.
      *
-     * @return Throws an error if it is not installed.
+     * @return The instance of the placeholder adapter.
      */
     public static @NotNull PlaceholderAPIHelper getInstance() {
-        if (!Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+        return PlaceholderAPIDependency.instance;
+    }
+
+    /**
+     * Used to check if placeholder api is enabled.
+     *
+     * @return True if it is enabled.
+     */
+    public static boolean isEnabled() {
+        return PlaceholderAPIDependency.instance != PlaceholderAPIDependency.EMPTY;
+    }
+
+    /**
+     * Used to resolve the helper again, depending
+     * on if placeholder api is currently enabled.
+     */
+    public static void refresh() {
+        boolean enabled = Bukkit.getPluginManager().isPluginEnabled(PLUGIN_NAME);
+        if (PlaceholderAPIDependency.resolved && enabled == PlaceholderAPIDependency.isEnabled()) return;
+        PlaceholderAPIDependency.resolved = true;
+
+        if (!enabled) {
             MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger().warning("Placeholder API is not installed.");
-            return new PlaceholderAPIHelper() {
-                @Override
-                public @NotNull String parse(@NotNull String message, @Nullable Player player) {
-                    return message;
-                }
-            };
+            PlaceholderAPIDependency.instance = PlaceholderAPIDependency.EMPTY;
+            return;
         }
-        return new PlaceholderAPIAdapter();
+
+        PlaceholderAPIDependency.instance = new PlaceholderAPIAdapter();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        if (!event.getPlugin().getName().equals(PLUGIN_NAME)) return;
+        PlaceholderAPIDependency.refresh();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        if (!event.getPlugin().getName().equals(PLUGIN_NAME)) return;
+
+        // The plugin is still enabled while this event is called.
+        PlaceholderAPIDependency.instance = PlaceholderAPIDependency.EMPTY;
+        MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger().warning("Placeholder API is not installed.");
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import com.github.cozyplugins.cozylibrary.inventory.InventoryItem;
+import com.github.cozyplugins.cozylibrary.inventory.action.action.ClickAction;
+import com.github.minemaniauk.api.MineManiaLocation;
+import com.github.minemaniauk.api.user.MineManiaUser;
+import com.github.minemaniauk.bukkitapi.BukkitAdapter;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a teleport button in a menu.
+ * The values are resolved when the menu template is
+ * compiled so opening a menu only has to place them.
+ *
+ * @param serverName The name of the server to teleport to.
+ * @param name       The name of the item.
+ * @param material   The material of the item.
+ * @param lore       The lore of the item.
+ * @param slots      The slots to place the item.
+ * @param modelData  The model data of the item.
+ */
+public record MenuButton(@NotNull String serverName,
+                         @NotNull String name,
+                         @NotNull Material material,
+                         @NotNull List<String> lore,
+                         @NotNull List<Integer> slots,
+                         int modelData) {
+
+    /**
+     * Used to create a new menu button.
+     * The lists are copied so the button can not be changed.
+     */
+    public MenuButton {
+        lore = List.copyOf(lore);
+        slots = List.copyOf(slots);
+    }
+
+    /**
+     * Used to get the lore of this button followed
+     * by the last known status of its server.
+     *
+     * @return The lore with the server status.
+     */
+    public @NotNull List<String> getLoreWithStatus() {
+        List<String> statusLore = MineManiaAPI_BukkitPlugin.getInstance()
+                .getServerStatusPoller()
+                .getStatusLore(this.serverName);
+
+        if (statusLore.isEmpty()) return this.lore;
+
+        List<String> lore = new ArrayList<>(this.lore.size() + statusLore.size());
+        lore.addAll(this.lore);
+        lore.addAll(statusLore);
+        return lore;
+    }
+
+    /**
+     * Used to create the inventory item for this button,
+     * with the last known status of its server.
+     * Clicking it teleports the player to the server,
+     * or queues the teleport if kerb is degraded.
+     *
+     * @return The inventory item.
+     */
+    public @NotNull InventoryItem createItem() {
+        final String serverName = this.serverName;
+
+        return new InventoryItem()
+                .setMaterial(this.material)
+                .setCustomModelData(this.modelData)
+                .setName(this.name)
+                .setLore(this.getLoreWithStatus())
+                .addSlotList(this.slots)
+                .addAction((ClickAction) (user, type, inventory) -> {
+
+                    // Build the user from the online player, so the
+                    // click never waits on the database.
+                    MineManiaUser mineManiaUser = BukkitAdapter.getUser(user.getPlayer());
+                    MineManiaLocation location = new MineManiaLocation(serverName, "null", 0, 0, 0);
+
+                    // Teleport the player, or queue it if kerb is degraded.
+                    if (!MineManiaAPI_BukkitPlugin.getInstance().getKerbHealthMonitor().teleport(mineManiaUser, location)) {
+                        user.sendMessage("&7The network is busy, you will be sent once it recovers.");
+                    }
+                });
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Represents an entry of the menu document,
+ * decoded straight from its bson.
+ * The material and lore are resolved when it is decoded.
+ *
+ * @param item     The item as written in the document.
+ * @param material The material of the item.
+ *                 This will be null if the item is not a material.
+ * @param name     The name of the item.
+ * @param lore     The lore of the item.
+ * @param slot     The slot to place the item.
+ */
+public record MenuEntry(@Nullable String item,
+                        @Nullable Material material,
+                        @NotNull String name,
+                        @NotNull List<String> lore,
+                        int slot) {
+
+    /**
+     * Used to create a new menu entry.
+     * The lore is copied so the entry can not be changed.
+     */
+    public MenuEntry {
+        lore = List.copyOf(lore);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Decoder;
+import org.bson.codecs.DecoderContext;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the menu entry decoder.
+ * Used to read a menu entry straight from bson,
+ * without first converting it into maps and lists.
+ */
+public class MenuEntryDecoder implements Decoder<MenuEntry> {
+
+    /**
+     * The shared instance of the decoder.
+     */
+    public static final @NotNull MenuEntryDecoder INSTANCE = new MenuEntryDecoder();
+
+    private static final @NotNull DecoderContext CONTEXT = DecoderContext.builder().build();
+
+    /**
+     * Used to decode a menu entry from a bson document.
+     * Raw documents are read from their bytes directly.
+     *
+     * @param document The bson document of the entry.
+     * @return The menu entry.
+     */
+    public @NotNull MenuEntry decode(@NotNull BsonDocument document) {
+        BsonReader reader = document instanceof RawBsonDocument raw
+                ? new BsonBinaryReader(raw.getByteBuffer().asNIO())
+                : new BsonDocumentReader(document);
+
+        try (reader) {
+            return this.decode(reader, CONTEXT);
+        }
+    }
+
+    @Override
+    public @NotNull MenuEntry decode(@NotNull BsonReader reader, @NotNull DecoderContext context) {
+        String item = null;
+        String name = null;
+        List<String> lore = new ArrayList<>();
+        int slot = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String field = reader.readName();
+            BsonType type = reader.getCurrentBsonType();
+
+            switch (field) {
+                case "item" -> item = MenuEntryDecoder.readString(reader, type);
+                case "name" -> name = MenuEntryDecoder.readString(reader, type);
+                case "position" -> slot = MenuEntryDecoder.readInt(reader, type);
+                case "lore" -> {
+                    if (type != BsonType.ARRAY) {
+                        reader.skipValue();
+                        continue;
+                    }
+
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        lore.add("&r" + MenuEntryDecoder.readString(reader, reader.getCurrentBsonType()));
+                    }
+                    reader.readEndArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return new MenuEntry(
+                item,
+                item == null ? null : Material.matchMaterial(item),
+                ChatColor.RESET.toString() + name,
+                lore,
+                slot
+        );
+    }
+
+    private static @Nullable String readString(@NotNull BsonReader reader, @NotNull BsonType type) {
+        return switch (type) {
+            case STRING -> reader.readString();
+            case INT32 -> String.valueOf(reader.readInt32());
+            case INT64 -> String.valueOf(reader.readInt64());
+            case DOUBLE -> String.valueOf(reader.readDouble());
+            case BOOLEAN -> String.valueOf(reader.readBoolean());
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static int readInt(@NotNull BsonReader reader, @NotNull BsonType type) {
+        return switch (type) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> (int) reader.readInt64();
+            case DOUBLE -> (int) reader.readDouble();
+            default -> {
+                reader.skipValue();
+                yield 0;
+            }
+        };
+    }
+}
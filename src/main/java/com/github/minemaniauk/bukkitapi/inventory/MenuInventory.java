@@ -26,16 +26,11 @@ import com.github.cozyplugins.cozylibrary.inventory.action.action.ClickAction;
 import com.github.cozyplugins.cozylibrary.user.PlayerUser;
 
 import java.util.*;
-import com.github.minemaniauk.api.MineManiaLocation;
-import com.github.minemaniauk.api.user.MineManiaUser;
 import com.github.minemaniauk.bukkitapi.DatabaseConnection;
-import com.github.minemaniauk.bukkitapi.MenuSections;
 import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
 import com.github.squishylib.configuration.ConfigurationSection;
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import org.bson.Document;
-import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -50,35 +45,65 @@ import java.util.List;
  */
 public class MenuInventory extends CozyInventory {
 
+    /**
+     * The path of this menu's section in the menu document.
+     */
+    public static final @NotNull String TEMPLATE_PATH = "server.main";
+
+    /**
+     * The teleport buttons that are always in this menu.
+     */
+    private static final @NotNull List<MenuButton> BUTTON_LIST = List.of(
+            // SMP button.
+            new MenuButton(
+                    "smp",
+                    "&a&lSMP",
+                    Material.PINK_STAINED_GLASS_PANE,
+                    List.of("&7Click to teleport to the public smp."),
+                    List.of(0, 1, 9, 10),
+                    1
+            ),
+
+            // World of calm button.
+            new MenuButton(
+                    "worldofcalm",
+                    "&b&lWorld of Calm",
+                    Material.PINK_STAINED_GLASS_PANE,
+                    List.of("&7Click to teleport to the world of calm."),
+                    List.of(2, 3, 11, 12),
+                    1
+            ),
+
+            // Battlegrounds button.
+            new MenuButton(
+                    "battlegroundssmp",
+                    "&c&lBattle Grounds",
+                    Material.PINK_STAINED_GLASS_PANE,
+                    List.of("&7Click to teleport to the battle grounds world."),
+                    List.of(6, 7, 15, 16),
+                    1
+            )
+    );
+
+    private final @NotNull MenuTemplate template;
+
     /**
      * Used to create a new instance of the menu.
+     *
+     * @param template The menu's template, prepared by the {@link MenuOpener}.
      */
-    public MenuInventory() {
+    public MenuInventory(@NotNull MenuTemplate template) {
         super(54, "&f₴₴₴₴₴₴₴₴☀");
+        this.template = template;
     }
 
     @Override
     protected void onGenerate(PlayerUser openUser) {
 
-        // SMP button.
-        this.setTeleportItem(
-                "smp",
-                "&a&lSMP",
-                Material.PINK_STAINED_GLASS_PANE,
-                List.of("&7Click to teleport to the public smp."),
-                List.of(0, 1, 9, 10),
-                1
-        );
-
-        // World of calm button.
-        this.setTeleportItem(
-                "worldofcalm",
-                "&b&lWorld of Calm",
-                Material.PINK_STAINED_GLASS_PANE,
-                List.of("&7Click to teleport to the world of calm."),
-                List.of(2, 3, 11, 12),
-                1
-        );
+        // Place the buttons that are always in this menu.
+        for (MenuButton button : BUTTON_LIST) {
+            this.setItem(button.createItem());
+        }
 
         // Games button.
         this.setItem(new InventoryItem()
@@ -88,21 +113,11 @@ public class MenuInventory extends CozyInventory {
                 .setLore("&7Click to view the game servers.")
                 .addSlot(4, 5, 13, 14)
                 .addAction((ClickAction) (user, type, inventory) -> {
-                    new GamesMenuInventory().open(user.getPlayer());
+                    MineManiaAPI_BukkitPlugin.getInstance().getMenuOpener()
+                            .open(user.getPlayer(), GamesMenuInventory::new, GamesMenuInventory.TEMPLATE_PATH);
                  })
         );
 
-
-        // Battlegrounds button.
-        this.setTeleportItem(
-                "battlegroundssmp",
-                "&c&lBattle Grounds",
-                Material.PINK_STAINED_GLASS_PANE,
-                List.of("&7Click to teleport to the battle grounds world."),
-                List.of(6, 7, 15, 16),
-                1
-        );
-
         // Other button.
         this.setItem(new InventoryItem()
                 .setMaterial(Material.PINK_STAINED_GLASS_PANE)
@@ -110,74 +125,15 @@ public class MenuInventory extends CozyInventory {
                 .setName("&a&lMore")
                 .addSlot(8, 17)
                 .addAction((ClickAction) (user, type, inventory) -> {
-                    new MenuInventoryPage2().open(user.getPlayer());
+                    MineManiaAPI_BukkitPlugin.getInstance().getMenuOpener()
+                            .open(user.getPlayer(), MenuInventoryPage2::new, MenuInventoryPage2.TEMPLATE_PATH);
                 })
         );
 
-
-        MongoCollection<Document> col = DatabaseConnection.getMongoDatabase().getCollection("MenuServers");
-
-// Pull menu.server.main  --> returns Map<String,Object>
-        Map<String, Object> servers = MenuSections.loadMenuSectionMap(col, "server.main");
-        if (servers.isEmpty()) return;
-
-        for (Map.Entry<String, Object> entry : servers.entrySet()) {
-            String key = entry.getKey();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> s = (Map<String, Object>) entry.getValue();
-
-            String name = (String) ChatColor.RESET.toString() + s.get("name");
-            String matStr = (String) s.get("item");
-            Material material = Material.matchMaterial(matStr);
-
-            @SuppressWarnings("unchecked")
-            List<String> lore = (s.get("lore") instanceof List)
-                    ? ((List<?>) s.get("lore"))
-                    .stream()
-                    .map(line -> "&r" + String.valueOf(line))
-                    .toList()
-                    : java.util.Collections.emptyList();
-
-
-            int pos = s.get("position") == null ? 0 : ((Number) s.get("position")).intValue();
-
-            setTeleportItem(
-                    key,
-                    name,
-                    material,
-                    lore,
-                    Collections.singletonList(pos),
-                    0
-            );
+        // Place the buttons from the menu document.
+        for (MenuButton button : this.template.getButtonList()) {
+            this.setItem(button.createItem());
         }
-
-    }
-
-    /**
-     * Used to set a teleport item into the inventory.
-     *
-     * @param serverName The name of the server.
-     * @param name       The name of the item.
-     * @param material   The material of the item.
-     * @param lore       The lore of the item.
-     * @param slots      The slots to place the item.
-     * @param modelData  The model data of the item.
-     */
-    private void setTeleportItem(@NotNull String serverName, @NotNull String name, @NotNull Material material, @NotNull List<String> lore, List<Integer> slots, @NotNull Integer modelData) {
-        this.setItem(new InventoryItem()
-                .setMaterial(material)
-                .setCustomModelData(modelData)
-                .setName(name)
-                .setLore(lore)
-                .addSlotList(slots)
-                .addAction((ClickAction) (user, type, inventory) -> {
-                    MineManiaUser mineManiaUser = MineManiaAPI_BukkitPlugin.getInstance().getUser(user.getUuid());
-                    MineManiaLocation location = new MineManiaLocation(serverName, "null", 0, 0, 0);
-
-                    // Teleport the player.
-                    mineManiaUser.getActions().teleport(location);
-                }));
-
     }
 
     private void loadIntoSquishySection(ConfigurationSection section, Document document) {
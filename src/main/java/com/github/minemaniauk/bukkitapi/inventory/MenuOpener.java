@@ -0,0 +1,135 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import com.github.cozyplugins.cozylibrary.inventory.CozyInventory;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Represents the menu opener.
+ * Used to prepare menus on a worker thread and only
+ * open them on the main thread once they are ready.
+ * Requests from a player that arrive while their last menu
+ * is still being prepared, or within the debounce time, are ignored.
+ */
+public class MenuOpener {
+
+    private final @NotNull MenuTemplateCache templateCache;
+    private final @NotNull ExecutorService executor;
+    private final @NotNull Set<UUID> pendingSet;
+    private final @NotNull Map<UUID, Long> lastOpenMap;
+    private final long debounceMillis;
+
+    /**
+     * Used to create a new menu opener.
+     *
+     * @param templateCache  The cache of menu templates to prepare.
+     * @param threads        The number of worker threads.
+     * @param debounceMillis The minimum time between a player's menu opens.
+     */
+    public MenuOpener(@NotNull MenuTemplateCache templateCache, int threads, long debounceMillis) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.templateCache = templateCache;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-Menu-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingSet = ConcurrentHashMap.newKeySet();
+        this.lastOpenMap = new ConcurrentHashMap<>();
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Used to open a menu for a player.
+     * The menu's template is prepared on a worker thread
+     * and the menu is then created with it and opened on the main thread.
+     * If the template can not be prepared, the menu is
+     * opened with an empty template.
+     *
+     * @param player       The player to open the menu for.
+     * @param menu         Used to create the instance of the menu from its template.
+     * @param templatePath The path of the menu's section in the menu document.
+     * @return False if the request was ignored.
+     */
+    public boolean open(@NotNull Player player, @NotNull Function<MenuTemplate, CozyInventory> menu, @NotNull String templatePath) {
+        final UUID playerUuid = player.getUniqueId();
+        final long now = System.currentTimeMillis();
+
+        // Check if the player has opened a menu too recently.
+        Long lastOpen = this.lastOpenMap.get(playerUuid);
+        if (lastOpen != null && now - lastOpen < this.debounceMillis) return false;
+
+        // Check if a menu is already being prepared.
+        if (!this.pendingSet.add(playerUuid)) return false;
+        this.lastOpenMap.put(playerUuid, now);
+
+        CompletableFuture.supplyAsync(() -> this.templateCache.getTemplate(templatePath), this.executor)
+                .whenComplete((template, throwable) -> Bukkit.getScheduler().runTask(
+                        MineManiaAPI_BukkitPlugin.getInstance().getPlugin(),
+                        () -> {
+                            this.pendingSet.remove(playerUuid);
+
+                            if (throwable != null) {
+                                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                                        .log(Level.WARNING, "Unable to prepare menu " + templatePath + ".", throwable);
+                            }
+
+                            if (!player.isOnline()) return;
+                            menu.apply(template == null ? MenuTemplate.EMPTY : template).open(player);
+                        }
+                ));
+
+        return true;
+    }
+
+    /**
+     * Used to forget a player's last menu open.
+     * This should be called when the player leaves.
+     *
+     * @param playerUuid The player's uuid.
+     */
+    public void remove(@NotNull UUID playerUuid) {
+        this.lastOpenMap.remove(playerUuid);
+        this.pendingSet.remove(playerUuid);
+    }
+
+    /**
+     * Used to stop the worker threads.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
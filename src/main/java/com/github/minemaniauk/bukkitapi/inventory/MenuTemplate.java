@@ -0,0 +1,114 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a compiled menu template.
+ * Contains the teleport buttons for a section of the
+ * menu document, which are the same for every player.
+ * A template is compiled once for each version of the
+ * menu document and shared between every menu that is opened.
+ */
+public class MenuTemplate {
+
+    /**
+     * A template with no buttons, used when
+     * the menu document can not be loaded.
+     */
+    public static final @NotNull MenuTemplate EMPTY = new MenuTemplate(-1, List.of());
+
+    private final long version;
+    private final @NotNull List<MenuButton> buttonList;
+
+    /**
+     * Used to create a new menu template.
+     *
+     * @param version    The version of the menu document it was compiled from.
+     * @param buttonList The list of buttons.
+     */
+    public MenuTemplate(long version, @NotNull List<MenuButton> buttonList) {
+        this.version = version;
+        this.buttonList = List.copyOf(buttonList);
+    }
+
+    /**
+     * Used to get the version of the menu document
+     * this template was compiled from.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Used to get the buttons in this template.
+     *
+     * @return The unmodifiable list of buttons.
+     */
+    public @NotNull List<MenuButton> getButtonList() {
+        return this.buttonList;
+    }
+
+    /**
+     * Used to compile a section of the menu document into a template.
+     * Entries with a material that doesn't exist are skipped.
+     *
+     * @param section The section of the menu document.
+     * @param version The version of the menu document.
+     * @return The compiled template.
+     */
+    public static @NotNull MenuTemplate compile(@NotNull BsonDocument section, long version) {
+        List<MenuButton> buttonList = new ArrayList<>();
+
+        for (Map.Entry<String, BsonValue> value : section.entrySet()) {
+            if (!value.getValue().isDocument()) continue;
+
+            MenuEntry entry = MenuEntryDecoder.INSTANCE.decode(value.getValue().asDocument());
+            if (entry.material() == null) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .warning("Menu entry " + value.getKey() + " has an invalid item " + entry.item() + ".");
+                continue;
+            }
+
+            buttonList.add(new MenuButton(
+                    value.getKey(),
+                    entry.name(),
+                    entry.material(),
+                    entry.lore(),
+                    Collections.singletonList(entry.slot()),
+                    0
+            ));
+        }
+
+        return new MenuTemplate(version, buttonList);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import com.github.minemaniauk.bukkitapi.MenuSnapshotCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the menu template cache.
+ * Contains the compiled template for each section of the
+ * menu document. Templates are recompiled when the
+ * menu snapshot changes.
+ */
+public class MenuTemplateCache {
+
+    private final @NotNull MenuSnapshotCache snapshotCache;
+    private final @NotNull Map<String, MenuTemplate> templateMap;
+
+    /**
+     * Used to create a new menu template cache.
+     *
+     * @param snapshotCache The menu snapshot to compile templates from.
+     */
+    public MenuTemplateCache(@NotNull MenuSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+        this.templateMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Used to get the template for a section of the menu document.
+     *
+     * @param path The path of the section under menu, for example server.main.
+     * @return The compiled template.
+     */
+    public @NotNull MenuTemplate getTemplate(@NotNull String path) {
+        long version = this.snapshotCache.getVersion();
+        MenuTemplate template = this.templateMap.get(path);
+
+        // Check if the template needs compiling.
+        if (template == null || template.getVersion() != version) {
+            template = MenuTemplate.compile(this.snapshotCache.getSection(path), version);
+            this.templateMap.put(path, template);
+        }
+
+        return template;
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.kerb;
+
+import com.github.kerbity.kerb.result.CompletableResultSet;
+import com.github.kerbity.kerb.result.ResultSet;
+import com.github.minemaniauk.api.MineManiaLocation;
+import com.github.minemaniauk.api.kerb.event.useraction.UserActionTeleportEvent;
+import com.github.minemaniauk.api.user.MineManiaUser;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Represents the kerb health monitor.
+ * Used to keep track of whether kerb is answering requests.
+ * Results are waited for as long as the kerb client allows,
+ * which is set by max_wait_time_millis.
+ * <p>
+ * When several requests in a row fail or get no results at all,
+ * the monitor enters degraded mode. In degraded mode chat stays
+ * on this server and teleports are queued. A request is still let
+ * through now and then as a probe, and the monitor leaves
+ * degraded mode as soon as one succeeds.
+ */
+public class KerbHealthMonitor {
+
+    private static final int TELEPORT_THREADS = 2;
+
+    private final int failureThreshold;
+    private final long probeIntervalMillis;
+    private final @NotNull String degradedChatPrefix;
+
+    private final @NotNull Map<UUID, QueuedTeleport> queuedTeleportMap;
+    private final @NotNull ExecutorService executor;
+    private final @NotNull AtomicInteger consecutiveFailures;
+    private final @NotNull AtomicLong lastProbe;
+    private volatile boolean degraded;
+
+    /**
+     * Used to create a new kerb health monitor.
+     *
+     * @param failureThreshold    The number of failures in a row before degrading.
+     * @param probeIntervalMillis The time between probes while degraded.
+     * @param degradedChatPrefix  The prefix of messages kept on this server
+     *                            when the player's chat format is not known.
+     */
+    public KerbHealthMonitor(int failureThreshold, long probeIntervalMillis, @NotNull String degradedChatPrefix) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.probeIntervalMillis = Math.max(100, probeIntervalMillis);
+        this.degradedChatPrefix = degradedChatPrefix;
+
+        this.queuedTeleportMap = new LinkedHashMap<>();
+        this.executor = Executors.newFixedThreadPool(TELEPORT_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-Kerb");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.consecutiveFailures = new AtomicInteger();
+        this.lastProbe = new AtomicLong();
+    }
+
+    /**
+     * Used to check if the monitor is in degraded mode.
+     *
+     * @return True if degraded.
+     */
+    public boolean isDegraded() {
+        return this.degraded;
+    }
+
+    /**
+     * Used to get the prefix of messages kept on this server
+     * when the player's chat format is not known.
+     * {@code %player_name%} should be replaced with the player's name.
+     *
+     * @return The chat prefix.
+     */
+    public @NotNull String getDegradedChatPrefix() {
+        return this.degradedChatPrefix;
+    }
+
+    /**
+     * Used to check if a request should be sent to kerb.
+     * This is always true unless the monitor is degraded,
+     * in which case it is only true for the occasional probe.
+     *
+     * @return True if the request should be sent.
+     */
+    public boolean shouldUseNetwork() {
+        if (!this.degraded) return true;
+
+        final long now = System.currentTimeMillis();
+        final long last = this.lastProbe.get();
+        return now - last >= this.probeIntervalMillis && this.lastProbe.compareAndSet(last, now);
+    }
+
+    /**
+     * Used to call a kerb event and wait for its results.
+     * The wait happens on the calling thread, for as long as kerb takes.
+     * If the call fails or no server answers,
+     * it counts towards degrading the monitor.
+     * Partial results are not counted as a failure.
+     *
+     * @param type   The type of request, usually the event's class name.
+     * @param caller Used to call the event.
+     * @param <T>    The type of event.
+     * @return The optional result set.
+     * It will be empty if the call failed.
+     */
+    public <T> @NotNull Optional<ResultSet<T>> call(@NotNull String type, @NotNull Supplier<CompletableResultSet<T>> caller) {
+        return this.call(type, caller, resultSet -> true);
+    }
+
+    /**
+     * Used to call a kerb event and wait for its results.
+     * The wait happens on the calling thread, for as long as kerb takes.
+     * If the call fails or no server answers,
+     * it counts towards degrading the monitor.
+     * Partial results are not counted as a failure.
+     * Results only count as a success if they pass the check.
+     *
+     * @param type    The type of request, usually the event's class name.
+     * @param caller  Used to call the event.
+     * @param success Used to check if the results were successful.
+     * @param <T>     The type of event.
+     * @return The optional result set.
+     * It will be empty if the call failed.
+     */
+    public <T> @NotNull Optional<ResultSet<T>> call(@NotNull String type,
+                                                    @NotNull Supplier<CompletableResultSet<T>> caller,
+                                                    @NotNull Predicate<ResultSet<T>> success) {
+        ResultSet<T> resultSet;
+        try {
+            resultSet = caller.get().waitForComplete();
+        } catch (Exception exception) {
+            this.onFailure(type + " failed: " + exception);
+            return Optional.empty();
+        }
+
+        // Check if no server answered before kerb stopped waiting.
+        if (!resultSet.get().iterator().hasNext()) {
+            this.onFailure(type + " got no results.");
+        } else if (success.test(resultSet)) {
+            this.onSuccess();
+        }
+
+        return Optional.of(resultSet);
+    }
+
+    /**
+     * Used to teleport a user through kerb.
+     * If the monitor is degraded, the teleport is queued
+     * and sent once the monitor recovers.
+     * Only the latest teleport for each user is kept.
+     *
+     * @param user     The user to teleport.
+     * @param location The location to teleport them to.
+     * @return True if the teleport was sent, false if it was queued.
+     */
+    public boolean teleport(@NotNull MineManiaUser user, @NotNull MineManiaLocation location) {
+        if (!this.shouldUseNetwork()) {
+            synchronized (this.queuedTeleportMap) {
+                this.queuedTeleportMap.remove(user.getUniqueId());
+                this.queuedTeleportMap.put(user.getUniqueId(), new QueuedTeleport(user, location));
+            }
+            return false;
+        }
+
+        this.executor.execute(() -> this.sendTeleport(user, location));
+        return true;
+    }
+
+    /**
+     * Used to drop a user's queued teleport,
+     * for example when they leave.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull KerbHealthMonitor removeTeleport(@NotNull UUID playerUuid) {
+        synchronized (this.queuedTeleportMap) {
+            this.queuedTeleportMap.remove(playerUuid);
+        }
+        return this;
+    }
+
+    /**
+     * Used to get the number of teleports waiting
+     * for the monitor to recover.
+     *
+     * @return The number of queued teleports.
+     */
+    public int getQueuedTeleportAmount() {
+        synchronized (this.queuedTeleportMap) {
+            return this.queuedTeleportMap.size();
+        }
+    }
+
+    /**
+     * Used to stop the threads sending teleports.
+     * Queued teleports are dropped.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private void sendTeleport(@NotNull MineManiaUser user, @NotNull MineManiaLocation location) {
+        Optional<ResultSet<UserActionTeleportEvent>> optionalResultSet = this.call(
+                UserActionTeleportEvent.class.getSimpleName(),
+                () -> MineManiaAPI_BukkitPlugin.getInstance().getAPI().callEvent(new UserActionTeleportEvent(user, location)),
+                KerbHealthMonitor::isCompleted
+        );
+
+        // Check if the teleport could not be sent.
+        if (optionalResultSet.isEmpty()) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .warning("Unable to send teleport for " + user.getUniqueId() + ", queuing it.");
+
+            synchronized (this.queuedTeleportMap) {
+                this.queuedTeleportMap.putIfAbsent(user.getUniqueId(), new QueuedTeleport(user, location));
+            }
+            return;
+        }
+
+        // Check if no server accepted the teleport.
+        if (!KerbHealthMonitor.isCompleted(optionalResultSet.get())) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .warning("No server accepted the teleport for " + user.getUniqueId() + " to " + location.getServerName() + ".");
+        }
+    }
+
+    private static boolean isCompleted(@NotNull ResultSet<UserActionTeleportEvent> resultSet) {
+        for (UserActionTeleportEvent event : resultSet.get()) {
+            if (event != null && event.isComplete()) return true;
+        }
+        return false;
+    }
+
+    private void onSuccess() {
+        this.consecutiveFailures.set(0);
+
+        if (this.degraded) {
+            this.degraded = false;
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .info("Kerb has recovered, leaving degraded mode.");
+        }
+
+        // Send the teleports that were waiting.
+        List<QueuedTeleport> teleportList;
+        synchronized (this.queuedTeleportMap) {
+            if (this.queuedTeleportMap.isEmpty()) return;
+            teleportList = new ArrayList<>(this.queuedTeleportMap.values());
+            this.queuedTeleportMap.clear();
+        }
+
+        for (QueuedTeleport teleport : teleportList) {
+            this.executor.execute(() -> this.sendTeleport(teleport.user(), teleport.location()));
+        }
+    }
+
+    private void onFailure(@NotNull String reason) {
+        if (this.consecutiveFailures.incrementAndGet() < this.failureThreshold) return;
+        if (this.degraded) return;
+
+        this.degraded = true;
+        this.lastProbe.set(System.currentTimeMillis());
+        MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                .warning("Kerb is slow or disconnected, entering degraded mode. " + reason);
+    }
+
+    /**
+     * Represents a teleport waiting for the monitor to recover.
+     *
+     * @param user     The user to teleport.
+     * @param location The location to teleport them to.
+     */
+    private record QueuedTeleport(@NotNull MineManiaUser user, @NotNull MineManiaLocation location) {
+    }
+}
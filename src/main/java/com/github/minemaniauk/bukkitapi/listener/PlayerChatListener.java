@@ -20,22 +20,29 @@
 
 package com.github.minemaniauk.bukkitapi.listener;
 
-import com.github.kerbity.kerb.result.CompletableResultSet;
+import com.github.cozyplugins.cozylibrary.user.PlayerUser;
 import com.github.kerbity.kerb.result.ResultSet;
 import com.github.minemaniauk.api.format.ChatFormat;
 import com.github.minemaniauk.api.kerb.event.player.PlayerChatEvent;
 import com.github.minemaniauk.api.kerb.event.player.PlayerPostChatEvent;
 import com.github.minemaniauk.bukkitapi.BukkitAdapter;
 import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
-import com.github.minemaniauk.bukkitapi.dependency.PlaceholderAPIDependency;
+import com.github.minemaniauk.bukkitapi.chat.ChatEchoFilter;
+import com.github.minemaniauk.bukkitapi.chat.ChatFormatCache;
+import com.github.minemaniauk.bukkitapi.chat.filter.ChatFilter;
+import com.github.minemaniauk.bukkitapi.kerb.KerbHealthMonitor;
 import com.github.smuddgge.squishyconfiguration.console.Console;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Represents the player chat listener.
@@ -45,10 +52,19 @@ public class PlayerChatListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerChat(AsyncPlayerChatEvent event) {
-        if (event.getMessage().matches("^[0-9]$")) {
+
+        // Check if the message breaks a chat filter rule.
+        Optional<ChatFilter.Entry> rejection = MineManiaAPI_BukkitPlugin.getInstance()
+                .getChatFilter().check(event.getMessage());
+
+        if (rejection.isPresent()) {
             event.setCancelled(true);
+            if (!rejection.get().message().isEmpty()) {
+                new PlayerUser(event.getPlayer()).sendMessage(rejection.get().message());
+            }
             return;
         }
+
         // Stop players from seeing the message.
         try {
             event.getRecipients().clear();
@@ -56,17 +72,79 @@ public class PlayerChatListener implements Listener {
             event.setCancelled(true);
         }
 
+        // Hand the message over to the chat pipeline so
+        // this chat thread is not parked waiting for kerb.
+        Player player = event.getPlayer();
+        String message = event.getMessage();
+        boolean queued = MineManiaAPI_BukkitPlugin.getInstance().getChatPipeline()
+                .submit(player.getUniqueId(), () -> this.onProcessChat(player, message));
+
+        if (!queued) {
+            Console.log("Chat pipeline is full, dropping message from " + player.getName() + ".");
+            new PlayerUser(player).sendMessage("&7Chat is busy right now, please try again.");
+        }
+    }
+
+    /**
+     * Used to process a player's message.
+     * This is called on a chat pipeline thread in
+     * the order the player sent their messages.
+     *
+     * @param player  The player that sent the message.
+     * @param message The message they sent.
+     */
+    private void onProcessChat(@NotNull Player player, @NotNull String message) {
+        ChatFormatCache chatFormatCache = MineManiaAPI_BukkitPlugin.getInstance().getChatFormatCache();
+        KerbHealthMonitor kerbHealthMonitor = MineManiaAPI_BukkitPlugin.getInstance().getKerbHealthMonitor();
+        Optional<ChatFormatCache.Entry> optionalEntry = chatFormatCache.get(player.getUniqueId());
+
+        // Check if kerb is degraded, in which case
+        // the message stays on this server.
+        if (!kerbHealthMonitor.shouldUseNetwork()) {
+            this.publishLocal(player, message, optionalEntry);
+            return;
+        }
+
+        // Check if the message should be shown on this server
+        // straight away instead of waiting for kerb.
+        ChatEchoFilter chatEchoFilter = MineManiaAPI_BukkitPlugin.getInstance().getChatEchoFilter();
+        final String messageId = chatEchoFilter.isEnabled() ? chatEchoFilter.record() : null;
+        if (messageId != null) this.publishLocal(player, message, optionalEntry);
+
+        // Check if the player's last result can be used.
+        // While degraded this message is a probe, so kerb is always asked.
+        if (optionalEntry.isPresent() && !kerbHealthMonitor.isDegraded()) {
+            this.publish(player, message, optionalEntry.get().chatFormat(), optionalEntry.get().serverWhiteList(), messageId);
+            return;
+        }
+
+        final long version = chatFormatCache.getVersion();
         Console.log("Calling player post chat event.");
 
-        // Call the post-chat event.
-        CompletableResultSet<PlayerPostChatEvent> completableResultSet = MineManiaAPI_BukkitPlugin.getInstance().getAPI()
-                .callEvent(new PlayerPostChatEvent(
-                        BukkitAdapter.getUser(event.getPlayer()),
-                        event.getMessage()
-                ));
+        // Call the post-chat event and wait for the final result set.
+        Optional<ResultSet<PlayerPostChatEvent>> optionalResultSet = kerbHealthMonitor.call(
+                PlayerPostChatEvent.class.getSimpleName(),
+                () -> MineManiaAPI_BukkitPlugin.getInstance().getAPI().callEvent(new PlayerPostChatEvent(
+                        BukkitAdapter.getUser(player),
+                        message
+                ))
+        );
 
-        // Wait for the final result set.
-        ResultSet<PlayerPostChatEvent> resultSet = completableResultSet.waitForComplete();
+        // Check if the event could not be called.
+        if (optionalResultSet.isEmpty()) {
+
+            // Check if kerb is now degraded, in which
+            // case the message stays on this server.
+            if (kerbHealthMonitor.isDegraded()) {
+                if (messageId == null) this.publishLocal(player, message, optionalEntry);
+                return;
+            }
+
+            new PlayerUser(player).sendMessage("&7Your message could not be sent, please try again.");
+            return;
+        }
+
+        ResultSet<PlayerPostChatEvent> resultSet = optionalResultSet.get();
 
         // Check if the event was cancelled.
         if (resultSet.containsCancelled()) {
@@ -86,13 +164,53 @@ public class PlayerChatListener implements Listener {
             serverWhiteList.addAll(postChatEvent.getServerWhitelist());
         }
 
+        chatFormatCache.put(player.getUniqueId(), version, chatFormat, serverWhiteList);
+        this.publish(player, message, chatFormat, serverWhiteList, messageId);
+    }
+
+    /**
+     * Used to send a player's message to this server only,
+     * when kerb is degraded or before it is sent to the network.
+     * The player's last chat format is used if it is known.
+     *
+     * @param player        The player that sent the message.
+     * @param message       The message they sent.
+     * @param optionalEntry The player's optional last chat format.
+     */
+    private void publishLocal(@NotNull Player player, @NotNull String message, @NotNull Optional<ChatFormatCache.Entry> optionalEntry) {
+        MineManiaAPI_BukkitPlugin plugin = MineManiaAPI_BukkitPlugin.getInstance();
+
+        String formattedMessage = optionalEntry.isPresent()
+                ? plugin.getPlaceholderFormatter().format(optionalEntry.get().chatFormat(), message, player)
+                : plugin.getKerbHealthMonitor().getDegradedChatPrefix().replace("%player_name%", player.getName()) + message;
+
+        plugin.getChatFanOut().broadcast(formattedMessage);
+    }
+
+    /**
+     * Used to format a player's message and
+     * send it to the servers in the whitelist.
+     *
+     * @param player          The player that sent the message.
+     * @param message         The message they sent.
+     * @param chatFormat      The chat format to apply.
+     * @param serverWhiteList The servers to send the message to.
+     * @param messageId       The id of the message if it was
+     *                        already shown on this server.
+     */
+    private void publish(@NotNull Player player, @NotNull String message, @NotNull ChatFormat chatFormat,
+                         @NotNull List<String> serverWhiteList, @Nullable String messageId) {
+
+        MineManiaAPI_BukkitPlugin plugin = MineManiaAPI_BukkitPlugin.getInstance();
+        String formattedMessage = plugin.getPlaceholderFormatter().format(chatFormat, message, player);
+
+        // Add the id so this server can recognise the message when it comes back.
+        if (messageId != null) formattedMessage = ChatEchoFilter.addId(formattedMessage, messageId);
+
         // Broadcast the final chat event and not expect results.
-        MineManiaAPI_BukkitPlugin.getInstance().getAPI().callEvent(new PlayerChatEvent(
-                BukkitAdapter.getUser(event.getPlayer()),
-                PlaceholderAPIDependency.getInstance().parse(
-                        chatFormat.parse(event.getMessage()),
-                        event.getPlayer()
-                ),
+        plugin.getAPI().callEvent(new PlayerChatEvent(
+                BukkitAdapter.getUser(player),
+                formattedMessage,
                 serverWhiteList
         ));
 
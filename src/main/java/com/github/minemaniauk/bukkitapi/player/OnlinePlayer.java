@@ -0,0 +1,98 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.player;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Represents a player in the {@link OnlinePlayerIndex}.
+ */
+public class OnlinePlayer {
+
+    private final @NotNull Player player;
+    private final @NotNull UUID uuid;
+    private final @NotNull String key;
+    private volatile boolean vanished;
+
+    /**
+     * Used to create a new online player.
+     *
+     * @param player   The instance of the player.
+     * @param vanished If the player is vanished.
+     */
+    public OnlinePlayer(@NotNull Player player, boolean vanished) {
+        this.player = player;
+        this.uuid = player.getUniqueId();
+        this.key = player.getName().toLowerCase(Locale.ROOT);
+        this.vanished = vanished;
+    }
+
+    /**
+     * Used to get the instance of the player.
+     *
+     * @return The instance of the player.
+     */
+    public @NotNull Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Used to get the player's uuid.
+     *
+     * @return The player's uuid.
+     */
+    public @NotNull UUID getUuid() {
+        return this.uuid;
+    }
+
+    /**
+     * Used to get the player's lower-case name.
+     *
+     * @return The player's name in lower case.
+     */
+    public @NotNull String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Used to check if the player is vanished.
+     *
+     * @return True if they are vanished.
+     */
+    public boolean isVanished() {
+        return this.vanished;
+    }
+
+    /**
+     * Used to set if the player is vanished.
+     *
+     * @param vanished If the player is vanished.
+     * @return This instance.
+     */
+    public @NotNull OnlinePlayer setVanished(boolean vanished) {
+        this.vanished = vanished;
+        return this;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.player;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the online player index.
+ * Contains the players that are online on this server,
+ * indexed by uuid and lower-case name.
+ * It is updated when players join and leave, so it
+ * can be safely read from any thread, including kerb threads.
+ */
+public class OnlinePlayerIndex {
+
+    private final @NotNull Map<UUID, OnlinePlayer> uuidMap;
+    private final @NotNull Map<String, OnlinePlayer> nameMap;
+
+    /**
+     * Used to create a new online player index.
+     */
+    public OnlinePlayerIndex() {
+        this.uuidMap = new ConcurrentHashMap<>();
+        this.nameMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Used to add a player to the index.
+     *
+     * @param player   The instance of the player.
+     * @param vanished If the player is vanished.
+     * @return This instance.
+     */
+    public @NotNull OnlinePlayerIndex add(@NotNull Player player, boolean vanished) {
+        OnlinePlayer onlinePlayer = new OnlinePlayer(player, vanished);
+
+        OnlinePlayer previous = this.uuidMap.put(player.getUniqueId(), onlinePlayer);
+        if (previous != null) this.nameMap.remove(previous.getKey(), previous);
+        this.nameMap.put(onlinePlayer.getKey(), onlinePlayer);
+        return this;
+    }
+
+    /**
+     * Used to remove a player from the index.
+     *
+     * @param playerUuid The player's uuid.
+     * @return This instance.
+     */
+    public @NotNull OnlinePlayerIndex remove(@NotNull UUID playerUuid) {
+        OnlinePlayer onlinePlayer = this.uuidMap.remove(playerUuid);
+        if (onlinePlayer != null) this.nameMap.remove(onlinePlayer.getKey(), onlinePlayer);
+        return this;
+    }
+
+    /**
+     * Used to get an online player from their uuid.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional online player.
+     */
+    public @NotNull Optional<OnlinePlayer> get(@NotNull UUID playerUuid) {
+        return Optional.ofNullable(this.uuidMap.get(playerUuid));
+    }
+
+    /**
+     * Used to get an online player from their name.
+     * The name is not case-sensitive.
+     *
+     * @param name The player's name.
+     * @return The optional online player.
+     */
+    public @NotNull Optional<OnlinePlayer> get(@NotNull String name) {
+        return Optional.ofNullable(this.nameMap.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Used to get a player from their uuid.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional player.
+     */
+    public @NotNull Optional<Player> getPlayer(@NotNull UUID playerUuid) {
+        OnlinePlayer onlinePlayer = this.uuidMap.get(playerUuid);
+        if (onlinePlayer == null) return Optional.empty();
+        return Optional.of(onlinePlayer.getPlayer());
+    }
+
+    /**
+     * Used to check if a player is online.
+     *
+     * @param playerUuid The player's uuid.
+     * @return True if they are online.
+     */
+    public boolean isOnline(@NotNull UUID playerUuid) {
+        return this.uuidMap.containsKey(playerUuid);
+    }
+
+    /**
+     * Used to check if a player is online and vanished.
+     *
+     * @param playerUuid The player's uuid.
+     * @return True if they are online and vanished.
+     */
+    public boolean isVanished(@NotNull UUID playerUuid) {
+        OnlinePlayer onlinePlayer = this.uuidMap.get(playerUuid);
+        return onlinePlayer != null && onlinePlayer.isVanished();
+    }
+
+    /**
+     * Used to get every online player.
+     *
+     * @return The unmodifiable collection of online players.
+     */
+    public @NotNull Collection<OnlinePlayer> getAll() {
+        return Collections.unmodifiableCollection(this.uuidMap.values());
+    }
+
+    /**
+     * Used to get the number of online players.
+     *
+     * @return The number of online players.
+     */
+    public int getSize() {
+        return this.uuidMap.size();
+    }
+}
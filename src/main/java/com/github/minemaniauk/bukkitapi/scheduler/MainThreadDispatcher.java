@@ -0,0 +1,123 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * Represents the main thread dispatcher.
+ * Used to run work that touches bukkit from other threads,
+ * such as kerb threads, on the main thread.
+ * Queued tasks are run in the order they were submitted,
+ * in batches each tick, until the tick's time budget is used up.
+ */
+public class MainThreadDispatcher {
+
+    private final @NotNull Plugin plugin;
+    private final @NotNull Queue<Runnable> taskQueue;
+    private final long budgetNanos;
+    private @Nullable BukkitTask task;
+
+    /**
+     * Used to create a new main thread dispatcher.
+     *
+     * @param plugin       The plugin to schedule the dispatcher with.
+     * @param budgetMicros The maximum time to spend running tasks each tick.
+     *                     At least one task is always run each tick.
+     */
+    public MainThreadDispatcher(@NotNull Plugin plugin, long budgetMicros) {
+        this.plugin = plugin;
+        this.taskQueue = new ConcurrentLinkedQueue<>();
+        this.budgetNanos = Math.max(1, budgetMicros) * 1000L;
+    }
+
+    /**
+     * Used to start running queued tasks each tick.
+     *
+     * @return This instance.
+     */
+    public @NotNull MainThreadDispatcher start() {
+        if (this.task != null) return this;
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::tick, 1, 1);
+        return this;
+    }
+
+    /**
+     * Used to queue a task to run on the main thread.
+     *
+     * @param runnable The task to run.
+     * @return This instance.
+     */
+    public @NotNull MainThreadDispatcher submit(@NotNull Runnable runnable) {
+        this.taskQueue.add(runnable);
+        return this;
+    }
+
+    /**
+     * Used to get the number of tasks waiting to run.
+     *
+     * @return The number of tasks waiting.
+     */
+    public int getPendingAmount() {
+        return this.taskQueue.size();
+    }
+
+    /**
+     * Used to stop the dispatcher.
+     * Any tasks still waiting are run straight away,
+     * so this should be called on the main thread.
+     */
+    public void shutdown() {
+        if (this.task != null) this.task.cancel();
+        this.task = null;
+
+        Runnable runnable;
+        while ((runnable = this.taskQueue.poll()) != null) {
+            this.run(runnable);
+        }
+    }
+
+    private void tick() {
+        final long deadline = System.nanoTime() + this.budgetNanos;
+
+        do {
+            Runnable runnable = this.taskQueue.poll();
+            if (runnable == null) return;
+            this.run(runnable);
+        } while (System.nanoTime() < deadline);
+    }
+
+    private void run(@NotNull Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Exception exception) {
+            this.plugin.getLogger().log(Level.WARNING, "Exception while running a main thread task.", exception);
+        }
+    }
+}
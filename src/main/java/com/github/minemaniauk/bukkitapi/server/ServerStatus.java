@@ -0,0 +1,47 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.server;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents the last known status of a server.
+ *
+ * @param name        The name of the server.
+ * @param playerCount The number of players on the server.
+ * @param updatedAt   The time the status was received.
+ * @param lore        The lore lines that show this status.
+ */
+public record ServerStatus(@NotNull String name,
+                           int playerCount,
+                           long updatedAt,
+                           @NotNull List<String> lore) {
+
+    /**
+     * Used to create a new server status.
+     * The lore is copied so the status can not be changed.
+     */
+    public ServerStatus {
+        lore = List.copyOf(lore);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.server;
+
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import com.github.minemaniauk.bukkitapi.player.OnlinePlayer;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the server status poller.
+ * Used to keep a shared table of the number of players
+ * on each server, by asking the proxy through the
+ * bungee cord plugin messaging channel at a fixed rate.
+ * Menus read from the table, so opening a menu
+ * never sends any requests.
+ * <p>
+ * The proxy only reports player counts, not whether a
+ * server is up. A server that didn't answer the last poll
+ * is shown with an unknown status instead of its last count.
+ */
+public class ServerStatusPoller implements PluginMessageListener, Listener {
+
+    private static final long ANSWER_MILLIS = 2000;
+
+    /**
+     * The plugin messaging channel used to talk to the proxy.
+     */
+    public static final @NotNull String CHANNEL = "BungeeCord";
+
+    private final @NotNull Plugin plugin;
+    private final @NotNull Map<String, ServerStatus> statusMap;
+    private final long intervalTicks;
+    private final long staleMillis;
+    private final @NotNull String onlineLore;
+    private final @NotNull List<String> unknownLore;
+    private volatile long lastUpdatedAt;
+    private volatile long lastPolledAt;
+    private @Nullable BukkitTask task;
+
+    /**
+     * Used to create a new server status poller.
+     *
+     * @param plugin        The plugin to register the channel with.
+     * @param intervalTicks The number of ticks between each poll.
+     * @param onlineLore    The lore line added when the status is known.
+     *                      {@code %players%} is replaced with the player count.
+     * @param unknownLore   The lore line added when the server
+     *                      didn't answer the last poll.
+     */
+    public ServerStatusPoller(@NotNull Plugin plugin, long intervalTicks, @NotNull String onlineLore, @NotNull String unknownLore) {
+        this.plugin = plugin;
+        this.statusMap = new ConcurrentHashMap<>();
+        this.intervalTicks = Math.max(20, intervalTicks);
+        this.staleMillis = this.intervalTicks * 50L * 3;
+        this.onlineLore = onlineLore;
+        this.unknownLore = unknownLore.isEmpty() ? List.of() : List.of(unknownLore);
+    }
+
+    /**
+     * Used to register the channel and start polling.
+     * A poll is also sent when a player joins after
+     * the statuses have gone stale, as polls can only
+     * be sent while a player is online.
+     *
+     * @return This instance.
+     */
+    public @NotNull ServerStatusPoller start() {
+        if (this.task != null) return this;
+
+        Bukkit.getMessenger().registerOutgoingPluginChannel(this.plugin, CHANNEL);
+        Bukkit.getMessenger().registerIncomingPluginChannel(this.plugin, CHANNEL, this);
+        Bukkit.getPluginManager().registerEvents(this, this.plugin);
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::poll, 20, this.intervalTicks);
+        return this;
+    }
+
+    /**
+     * Used to get the last known status of a server.
+     *
+     * @param serverName The name of the server.
+     * @return The status, or null if it is not known,
+     * has not been updated recently or the server
+     * didn't answer the last poll.
+     */
+    public @Nullable ServerStatus getStatus(@NotNull String serverName) {
+        ServerStatus status = this.statusMap.get(serverName.toLowerCase(Locale.ROOT));
+        if (status == null) return null;
+
+        final long now = System.currentTimeMillis();
+        if (now - status.updatedAt() > this.staleMillis) return null;
+
+        // Check if the server missed the last poll
+        // after it was given time to answer.
+        final long lastPolledAt = this.lastPolledAt;
+        if (status.updatedAt() < lastPolledAt && now - lastPolledAt > ANSWER_MILLIS) return null;
+        return status;
+    }
+
+    /**
+     * Used to get the lore lines that show
+     * the status of a server.
+     *
+     * @param serverName The name of the server.
+     * @return The unmodifiable lore lines.
+     * This will be empty if the proxy has never answered.
+     */
+    public @NotNull List<String> getStatusLore(@NotNull String serverName) {
+        ServerStatus status = this.getStatus(serverName);
+        if (status != null) return status.lore();
+
+        // Check if the proxy has answered before, in which
+        // case this server's status is unknown.
+        if (this.lastUpdatedAt == 0) return List.of();
+        return this.unknownLore;
+    }
+
+    /**
+     * Used to ask the proxy for the list of servers.
+     * The player count of each server is asked for
+     * when the list is received.
+     * A player must be online to carry the message.
+     */
+    public void poll() {
+        Player carrier = this.getCarrier();
+        if (carrier == null) return;
+
+        ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        output.writeUTF("GetServers");
+        carrier.sendPluginMessage(this.plugin, CHANNEL, output.toByteArray());
+        this.lastPolledAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Used to stop polling and unregister the channel.
+     */
+    public void shutdown() {
+        if (this.task != null) this.task.cancel();
+        this.task = null;
+
+        Bukkit.getMessenger().unregisterOutgoingPluginChannel(this.plugin, CHANNEL);
+        Bukkit.getMessenger().unregisterIncomingPluginChannel(this.plugin, CHANNEL, this);
+        HandlerList.unregisterAll(this);
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+
+        // Check if the statuses are still recent.
+        if (System.currentTimeMillis() - this.lastUpdatedAt <= this.staleMillis) return;
+
+        // Wait until the player's connection can carry plugin messages.
+        Bukkit.getScheduler().runTaskLater(this.plugin, this::poll, 5);
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, byte @NotNull [] message) {
+        if (!channel.equals(CHANNEL)) return;
+
+        ByteArrayDataInput input = ByteStreams.newDataInput(message);
+        String subChannel = input.readUTF();
+
+        // Ask for the player count of every server.
+        if (subChannel.equals("GetServers")) {
+            for (String serverName : input.readUTF().split(", ")) {
+                if (serverName.isBlank()) continue;
+
+                ByteArrayDataOutput output = ByteStreams.newDataOutput();
+                output.writeUTF("PlayerCount");
+                output.writeUTF(serverName);
+                player.sendPluginMessage(this.plugin, CHANNEL, output.toByteArray());
+            }
+            return;
+        }
+
+        // Update the status of a server.
+        if (subChannel.equals("PlayerCount")) {
+            String serverName = input.readUTF();
+            int playerCount = input.readInt();
+            long updatedAt = System.currentTimeMillis();
+
+            this.statusMap.put(serverName.toLowerCase(Locale.ROOT), new ServerStatus(
+                    serverName,
+                    playerCount,
+                    updatedAt,
+                    this.onlineLore.isEmpty()
+                            ? List.of()
+                            : List.of(this.onlineLore.replace("%players%", String.valueOf(playerCount)))
+            ));
+            this.lastUpdatedAt = updatedAt;
+        }
+    }
+
+    private @Nullable Player getCarrier() {
+        Iterator<OnlinePlayer> iterator = MineManiaAPI_BukkitPlugin.getInstance()
+                .getOnlinePlayerIndex().getAll().iterator();
+
+        if (!iterator.hasNext()) return null;
+        return iterator.next().getPlayer();
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.teleport;
+
+import com.github.minemaniauk.api.MineManiaLocation;
+import com.github.minemaniauk.bukkitapi.MineManiaAPI_BukkitPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Represents the pending teleport store.
+ * Contains the locations players should be teleported to
+ * when they join this server. Entries expire after a set time,
+ * are removed once used and the store is limited to a maximum size.
+ * <p>
+ * If a journal file is given, every change is appended to it
+ * so pending teleports survive a restart.
+ * Changes are queued under the same lock as the store is updated,
+ * so the journal is in the same order, and written on a separate
+ * thread so the main thread never waits on the disk.
+ */
+public class PendingTeleportStore {
+
+    private static final @NotNull String SEPARATOR = "\t";
+
+    private final @NotNull Map<UUID, PendingTeleport> teleportMap;
+    private final long timeToLiveMillis;
+    private final int maxSize;
+    private final @Nullable File journalFile;
+    private final @Nullable ExecutorService journalExecutor;
+    private @Nullable BufferedWriter journalWriter;
+    private volatile int journalLines;
+
+    /**
+     * Used to create a new pending teleport store.
+     *
+     * @param timeToLiveMillis The time a pending teleport is kept.
+     * @param maxSize          The maximum number of pending teleports.
+     * @param journalFile      The file to journal changes to.
+     *                         When null, pending teleports are only kept in memory.
+     */
+    public PendingTeleportStore(long timeToLiveMillis, int maxSize, @Nullable File journalFile) {
+        this.teleportMap = new ConcurrentHashMap<>();
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxSize = Math.max(1, maxSize);
+        this.journalFile = journalFile;
+        this.journalExecutor = journalFile == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MineManiaAPI-TeleportJournal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Used to add a pending teleport for a player.
+     * This will replace the player's previous pending teleport.
+     *
+     * @param playerUuid The player's uuid.
+     * @param location   The location to teleport them to.
+     * @return This instance.
+     */
+    public synchronized @NotNull PendingTeleportStore put(@NotNull UUID playerUuid, @NotNull MineManiaLocation location) {
+
+        // Make space if the store is full.
+        if (this.teleportMap.size() >= this.maxSize && !this.teleportMap.containsKey(playerUuid)) {
+            this.teleportMap.values().removeIf(PendingTeleport::hasExpired);
+            if (this.teleportMap.size() >= this.maxSize) this.evictOldest();
+        }
+
+        PendingTeleport teleport = new PendingTeleport(location, System.currentTimeMillis() + this.timeToLiveMillis);
+        this.teleportMap.put(playerUuid, teleport);
+        this.appendJournal(PendingTeleportStore.toPutLine(playerUuid, teleport));
+        return this;
+    }
+
+    /**
+     * Used to get and remove a player's pending teleport.
+     *
+     * @param playerUuid The player's uuid.
+     * @return The optional location.
+     * It will be empty if there is no pending teleport or it has expired.
+     */
+    public @NotNull Optional<MineManiaLocation> consume(@NotNull UUID playerUuid) {
+        PendingTeleport teleport;
+        synchronized (this) {
+            teleport = this.teleportMap.remove(playerUuid);
+            if (teleport == null) return Optional.empty();
+            this.appendJournal(PendingTeleportStore.toDeleteLine(playerUuid));
+        }
+
+        if (teleport.hasExpired()) return Optional.empty();
+        return Optional.of(teleport.location());
+    }
+
+    /**
+     * Used to get the number of pending teleports.
+     *
+     * @return The number of pending teleports.
+     */
+    public int getSize() {
+        return this.teleportMap.size();
+    }
+
+    /**
+     * Used to remove the pending teleports that have expired.
+     * The journal is rewritten when it has grown
+     * much larger than the store.
+     */
+    public void purgeExpired() {
+        synchronized (this) {
+            this.teleportMap.values().removeIf(PendingTeleport::hasExpired);
+            if (this.journalExecutor == null) return;
+            if (this.journalLines <= Math.max(64, this.teleportMap.size() * 4)) return;
+
+            // Queue the rewrite behind the changes already
+            // queued, using the store as it is now.
+            List<String> lineList = this.getPutLines();
+            this.journalExecutor.execute(() -> this.compactJournal(lineList));
+        }
+    }
+
+    /**
+     * Used to load the pending teleports from the journal
+     * and open it for writing.
+     * Does nothing if there is no journal.
+     */
+    public synchronized void load() {
+        if (this.journalFile == null) return;
+
+        try {
+            if (this.journalFile.exists()) {
+                for (String line : Files.readAllLines(this.journalFile.toPath(), StandardCharsets.UTF_8)) {
+                    this.replay(line);
+                }
+            }
+        } catch (IOException exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Unable to load the pending teleport journal.", exception);
+        }
+
+        this.teleportMap.values().removeIf(PendingTeleport::hasExpired);
+        this.compactJournal(this.getPutLines());
+    }
+
+    /**
+     * Used to write any queued changes and close the journal.
+     */
+    public void close() {
+        if (this.journalExecutor == null) return;
+
+        this.journalExecutor.shutdown();
+        try {
+            if (!this.journalExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                        .warning("Timed out writing the pending teleport journal.");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.closeWriter();
+    }
+
+    private void closeWriter() {
+        if (this.journalWriter == null) return;
+
+        try {
+            this.journalWriter.close();
+        } catch (IOException exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Unable to close the pending teleport journal.", exception);
+        }
+        this.journalWriter = null;
+    }
+
+    private void evictOldest() {
+        this.teleportMap.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().expiresAt()))
+                .ifPresent(entry -> {
+                    this.teleportMap.remove(entry.getKey(), entry.getValue());
+                    this.appendJournal(PendingTeleportStore.toDeleteLine(entry.getKey()));
+                });
+    }
+
+    /**
+     * Used to queue a line to be written to the journal.
+     * This should be called while holding the lock on this store,
+     * so lines are written in the same order the store was changed.
+     *
+     * @param line The line to write.
+     */
+    private void appendJournal(@NotNull String line) {
+        if (this.journalExecutor == null) return;
+        this.journalExecutor.execute(() -> this.writeJournal(line));
+    }
+
+    private void writeJournal(@NotNull String line) {
+        if (this.journalWriter == null) return;
+
+        try {
+            this.journalWriter.write(line);
+            this.journalWriter.newLine();
+            this.journalWriter.flush();
+            this.journalLines++;
+        } catch (IOException exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Unable to write to the pending teleport journal.", exception);
+        }
+    }
+
+    private @NotNull List<String> getPutLines() {
+        List<String> lineList = new ArrayList<>();
+        for (Map.Entry<UUID, PendingTeleport> entry : this.teleportMap.entrySet()) {
+            lineList.add(PendingTeleportStore.toPutLine(entry.getKey(), entry.getValue()));
+        }
+        return lineList;
+    }
+
+    /**
+     * Used to rewrite the journal so it only
+     * contains the given pending teleports.
+     * This should be called on the journal thread,
+     * or before any changes have been queued.
+     *
+     * @param lineList The lines of the current pending teleports.
+     */
+    private void compactJournal(@NotNull List<String> lineList) {
+        if (this.journalFile == null) return;
+
+        try {
+            this.closeWriter();
+
+            // Write to a temporary file first so a crash
+            // can not leave the journal half written.
+            File parent = this.journalFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) parent.mkdirs();
+            File temporaryFile = new File(parent, this.journalFile.getName() + ".tmp");
+            Files.write(temporaryFile.toPath(), lineList, StandardCharsets.UTF_8);
+            Files.move(temporaryFile.toPath(), this.journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            this.journalLines = lineList.size();
+            this.journalWriter = Files.newBufferedWriter(
+                    this.journalFile.toPath(),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND
+            );
+
+        } catch (IOException exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "Unable to compact the pending teleport journal.", exception);
+        }
+    }
+
+    private void replay(@NotNull String line) {
+        String[] parts = line.split(SEPARATOR);
+
+        try {
+            if (parts.length == 2 && parts[0].equals("DEL")) {
+                this.teleportMap.remove(UUID.fromString(parts[1]));
+                return;
+            }
+
+            if (parts.length == 8 && parts[0].equals("PUT")) {
+                this.teleportMap.put(UUID.fromString(parts[1]), new PendingTeleport(
+                        new MineManiaLocation(
+                                parts[3],
+                                parts[4],
+                                Double.parseDouble(parts[5]),
+                                Double.parseDouble(parts[6]),
+                                Double.parseDouble(parts[7])
+                        ),
+                        Long.parseLong(parts[2])
+                ));
+            }
+        } catch (IllegalArgumentException exception) {
+            MineManiaAPI_BukkitPlugin.getInstance().getPlugin().getLogger()
+                    .warning("Skipping invalid pending teleport journal line: " + line);
+        }
+    }
+
+    private static @NotNull String toDeleteLine(@NotNull UUID playerUuid) {
+        return "DEL" + SEPARATOR + playerUuid;
+    }
+
+    private static @NotNull String toPutLine(@NotNull UUID playerUuid, @NotNull PendingTeleport teleport) {
+        MineManiaLocation location = teleport.location();
+        return String.join(SEPARATOR,
+                "PUT",
+                playerUuid.toString(),
+                String.valueOf(teleport.expiresAt()),
+                location.getServerName(),
+                location.getWorldName(),
+                String.valueOf(location.getX()),
+                String.valueOf(location.getY()),
+                String.valueOf(location.getZ())
+        );
+    }
+
+    /**
+     * Represents a pending teleport.
+     *
+     * @param location  The location to teleport to.
+     * @param expiresAt The time the teleport expires in milliseconds.
+     */
+    private record PendingTeleport(@NotNull MineManiaLocation location, long expiresAt) {
+
+        private boolean hasExpired() {
+            return System.currentTimeMillis() > this.expiresAt;
+        }
+    }
+}
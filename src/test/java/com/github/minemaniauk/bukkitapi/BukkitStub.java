@@ -0,0 +1,165 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi;
+
+import com.github.minemaniauk.bukkitapi.server.ServerStatusPoller;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Represents a stubbed bukkit server for benchmarks.
+ * Every interface the server hands out is a stub whose
+ * methods do nothing and return empty values, so items and
+ * their meta can be built without a running server.
+ * A plugin instance can also be set, so code that reads
+ * from the plugin can be measured without enabling it.
+ */
+public final class BukkitStub {
+
+    private static final @NotNull Map<Class<?>, Object> STUB_MAP = new ConcurrentHashMap<>();
+    private static final @NotNull Logger LOGGER = Logger.getLogger("BukkitStub");
+
+    private BukkitStub() {
+    }
+
+    /**
+     * Used to set the stubbed server as the bukkit server.
+     * Does nothing if a server has already been set.
+     */
+    public static synchronized void install() {
+        if (Bukkit.getServer() != null) return;
+        Bukkit.setServer(BukkitStub.stub(Server.class));
+    }
+
+    /**
+     * Used to set a plugin instance that has not been enabled.
+     * Only the server status poller is set, and it is never started,
+     * so every server has no status.
+     * Does nothing if an instance has already been set.
+     *
+     * @return The plugin instance.
+     */
+    public static synchronized @NotNull MineManiaAPI_BukkitPlugin installPlugin() {
+        BukkitStub.install();
+        if (MineManiaAPI_BukkitPlugin.getInstance() != null) return MineManiaAPI_BukkitPlugin.getInstance();
+
+        try {
+            Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            Unsafe unsafe = (Unsafe) unsafeField.get(null);
+
+            // Create the plugin without running its constructor.
+            MineManiaAPI_BukkitPlugin plugin = (MineManiaAPI_BukkitPlugin) unsafe
+                    .allocateInstance(MineManiaAPI_BukkitPlugin.class);
+
+            BukkitStub.setField(plugin, "serverStatusPoller", new ServerStatusPoller(
+                    BukkitStub.stub(Plugin.class), 100, "&7Online: &f%players%", "&7Online: &8Unknown"
+            ));
+            BukkitStub.setField(null, "instance", plugin);
+            return plugin;
+
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to set the plugin instance.", exception);
+        }
+    }
+
+    /**
+     * Used to get the stub of an interface.
+     *
+     * @param type The interface.
+     * @param <T>  The type of interface.
+     * @return The shared stub.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull T stub(@NotNull Class<T> type) {
+        return (T) STUB_MAP.computeIfAbsent(type, key -> Proxy.newProxyInstance(
+                BukkitStub.class.getClassLoader(),
+                new Class<?>[]{key},
+                new StubHandler()
+        ));
+    }
+
+    private static void setField(Object target, @NotNull String name, Object value) throws ReflectiveOperationException {
+        Field field = MineManiaAPI_BukkitPlugin.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Represents the handler of every stub.
+     */
+    private static class StubHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] arguments) {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == arguments[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Stub" + proxy.getClass().getInterfaces()[0].getSimpleName();
+                }
+                case "getLogger" -> {
+                    return LOGGER;
+                }
+            }
+
+            Class<?> type = method.getReturnType();
+            if (type == void.class) return null;
+            if (type == boolean.class) return true;
+            if (type == char.class) return '\0';
+            if (type == byte.class) return (byte) 0;
+            if (type == short.class) return (short) 0;
+            if (type == int.class) return 0;
+            if (type == long.class) return 0L;
+            if (type == float.class) return 0F;
+            if (type == double.class) return 0D;
+            if (type == String.class) return "";
+            if (type == List.class || type == Collection.class) return Collections.emptyList();
+            if (type == Set.class) return Collections.emptySet();
+            if (type == Map.class) return Collections.emptyMap();
+            if (type == Optional.class) return Optional.empty();
+            if (type.isArray()) return Array.newInstance(type.getComponentType(), 0);
+            if (type.isInterface()) return BukkitStub.stub(type);
+            return null;
+        }
+    }
+}
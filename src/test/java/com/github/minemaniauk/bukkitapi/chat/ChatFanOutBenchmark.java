@@ -0,0 +1,129 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.chat;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the chat fan out benchmark.
+ * Used to compare the cost of sending one message to every
+ * recipient when the message is translated once, against
+ * translating it again for each recipient as chat did before.
+ * <p>
+ * Recipients are stubbed players that keep the last components
+ * they were sent, so only the translation and the send loop are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatFanOutBenchmark {
+
+    private static final @NotNull String MESSAGE = "&#ff88aa[Member] &7Steve&8: &fHello &aeveryone&f, &#33ccffwelcome back!";
+
+    @Param({"50", "200", "1000"})
+    public int recipients;
+
+    private List<Player> recipientList;
+
+    @Setup
+    public void setup() {
+        this.recipientList = new ArrayList<>(this.recipients);
+        for (int index = 0; index < this.recipients; index++) {
+            this.recipientList.add(ChatFanOutBenchmark.createPlayer());
+        }
+    }
+
+    @Benchmark
+    public @NotNull String translate() {
+        return ChatFanOut.translate(MESSAGE);
+    }
+
+    @Benchmark
+    public @NotNull BaseComponent[] fromLegacyText() {
+        return TextComponent.fromLegacyText(ChatFanOut.translate(MESSAGE));
+    }
+
+    @Benchmark
+    public void fanOut() {
+        BaseComponent[] components = TextComponent.fromLegacyText(ChatFanOut.translate(MESSAGE));
+        ChatFanOut.send(this.recipientList, components);
+    }
+
+    @Benchmark
+    public void perPlayer() {
+        for (Player player : this.recipientList) {
+            if (!player.isOnline()) continue;
+            player.spigot().sendMessage(TextComponent.fromLegacyText(ChatFanOut.translate(MESSAGE)));
+        }
+    }
+
+    private static @NotNull Player createPlayer() {
+        final StubSpigot spigot = new StubSpigot();
+
+        return (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(),
+                new Class<?>[]{Player.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "isOnline" -> true;
+                    case "spigot" -> spigot;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == arguments[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    /**
+     * Represents a player's spigot methods that
+     * keep the last message instead of sending it.
+     */
+    private static class StubSpigot extends Player.Spigot {
+
+        private BaseComponent[] lastMessage;
+
+        @Override
+        public void sendMessage(@NotNull BaseComponent... components) {
+            this.lastMessage = components;
+        }
+    }
+}
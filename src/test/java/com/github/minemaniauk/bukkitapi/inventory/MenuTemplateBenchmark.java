@@ -0,0 +1,175 @@
+/*
+ * MineManiaAPI
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.bukkitapi.inventory;
+
+import com.github.cozyplugins.cozylibrary.inventory.InventoryItem;
+import com.github.cozyplugins.cozylibrary.inventory.action.action.ClickAction;
+import com.github.minemaniauk.bukkitapi.BukkitStub;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the menu template benchmark.
+ * Used to compare the work done on each menu open
+ * before and after menus were compiled into templates.
+ * <p>
+ * The map path is how menus were opened before templates:
+ * the menu document is decoded, copied into plain maps and lists and every
+ * entry is read with casts, a material lookup and a lore stream,
+ * then its inventory item is built. Templates are compiled straight
+ * from the raw bson, and the template path calls
+ * {@link MenuButton#createItem()} for each button, which is the
+ * same work the menus do on open, status lore included.
+ * Compiling the template, which happens once for each version of
+ * the menu document, is measured on its own.
+ * Items are built against a stubbed bukkit server and plugin,
+ * and the database round trip is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuTemplateBenchmark {
+
+    private static final @NotNull DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private static final @NotNull DecoderContext CONTEXT = DecoderContext.builder().build();
+
+    @Param({"10", "50"})
+    public int entries;
+
+    private RawBsonDocument section;
+    private MenuTemplate template;
+
+    @Setup
+    public void setup() {
+        BukkitStub.installPlugin();
+
+        Document document = new Document();
+        for (int index = 0; index < this.entries; index++) {
+            document.append("server" + index, new Document()
+                    .append("item", "DIAMOND_SWORD")
+                    .append("name", "&b&lServer " + index)
+                    .append("lore", List.of("&7Click to teleport to server " + index + ".", "&7Have fun!"))
+                    .append("position", index));
+        }
+
+        this.section = RawBsonDocument.parse(document.toJson());
+
+        this.template = MenuTemplate.compile(this.section, 1);
+    }
+
+    @Benchmark
+    public @NotNull List<InventoryItem> mapPath() {
+        Document document = DOCUMENT_CODEC.decode(new BsonBinaryReader(this.section.getByteBuffer().asNIO()), CONTEXT);
+        Map<String, Object> servers = MenuTemplateBenchmark.toPlainMap(document);
+
+        List<InventoryItem> itemList = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : servers.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> server = (Map<String, Object>) entry.getValue();
+
+            String name = ChatColor.RESET.toString() + server.get("name");
+            Material material = Material.matchMaterial((String) server.get("item"));
+
+            List<String> lore = (server.get("lore") instanceof List)
+                    ? ((List<?>) server.get("lore")).stream()
+                    .map(line -> "&r" + line)
+                    .toList()
+                    : Collections.emptyList();
+
+            int position = server.get("position") == null ? 0 : ((Number) server.get("position")).intValue();
+
+            itemList.add(MenuTemplateBenchmark.createItem(name, material, lore, Collections.singletonList(position), 0));
+        }
+        return itemList;
+    }
+
+    @Benchmark
+    public @NotNull List<InventoryItem> templatePath() {
+        List<InventoryItem> itemList = new ArrayList<>();
+        for (MenuButton button : this.template.getButtonList()) {
+            itemList.add(button.createItem());
+        }
+        return itemList;
+    }
+
+    @Benchmark
+    public @NotNull MenuTemplate compile() {
+        return MenuTemplate.compile(this.section, 1);
+    }
+
+    /**
+     * Used to build a teleport item the same way
+     * the menus did before templates.
+     */
+    private static @NotNull InventoryItem createItem(@NotNull String name, @NotNull Material material, @NotNull List<String> lore, @NotNull List<Integer> slots, int modelData) {
+        return new InventoryItem()
+                .setMaterial(material)
+                .setCustomModelData(modelData)
+                .setName(name)
+                .setLore(lore)
+                .addSlotList(slots)
+                .addAction((ClickAction) (user, type, inventory) -> {
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull Map<String, Object> toPlainMap(@NotNull Map<String, Object> map) {
+        Map<String, Object> plainMap = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                plainMap.put(entry.getKey(), MenuTemplateBenchmark.toPlainMap((Map<String, Object>) value));
+            } else if (value instanceof List) {
+                plainMap.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>((List<?>) value)));
+            } else {
+                plainMap.put(entry.getKey(), value);
+            }
+        }
+        return Collections.unmodifiableMap(plainMap);
+    }
+}